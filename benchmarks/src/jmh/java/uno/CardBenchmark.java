@@ -0,0 +1,39 @@
+package uno;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Card.canPlayOn() for every card of the deck, on an up card and called color
+ * that change at every operation.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+public class CardBenchmark
+{
+    private UnoPlayer.Color[] colors = UnoPlayer.Color.values();
+    private int next;
+
+    /**
+     * @return the number of cards playable on the up card.
+     */
+    @Benchmark
+    public int canPlayOn()
+    {
+        Card up = Card.forId(next % Card.NUM_IDS);
+        UnoPlayer.Color called = colors[next % 4];
+        next++;
+        int playable = 0;
+        for (int id = 0; id < Card.NUM_IDS; id++)
+        {
+            if (Card.forId(id).canPlayOn(up, called))
+            {
+                playable++;
+            }
+        }
+        return playable;
+    }
+}
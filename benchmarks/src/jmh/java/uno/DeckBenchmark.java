@@ -0,0 +1,56 @@
+package uno;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The shuffle of a full deck, and the remix of the discard pile into the
+ * draw pile.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+public class DeckBenchmark
+{
+    private Deck deck;
+
+    /**
+     * Builds the deck.
+     */
+    @Setup
+    public void setUp()
+    {
+        deck = new Deck(new SplitRandom(Games.SEED));
+    }
+
+    /**
+     * @return the deck.
+     */
+    @Benchmark
+    public Deck shuffle()
+    {
+        deck.shuffle();
+        return deck;
+    }
+
+    /**
+     * Draws and discards 40 cards, then remixes them into the draw pile.
+     * 
+     * @return the number of cards left on the discard pile.
+     * @throws EmptyDeckException
+     *             never, as 40 cards are always left to draw.
+     */
+    @Benchmark
+    public int drawDiscardRemix() throws EmptyDeckException
+    {
+        for (int i = 0; i < 40; i++)
+        {
+            deck.discard(deck.draw());
+        }
+        deck.remix();
+        return deck.getNumDiscardedCards();
+    }
+}
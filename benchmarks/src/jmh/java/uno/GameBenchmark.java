@@ -0,0 +1,53 @@
+package uno;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Whole games between FirstCardPlayers, each dealt from a new seed on a reset
+ * Game, and the construction of a GameState.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+public class GameBenchmark
+{
+    @Param({ "2", "4", "8" })
+    public int numPlayers;
+
+    private Game game;
+    private long gameIndex;
+
+    /**
+     * Builds the game.
+     */
+    @Setup
+    public void setUp()
+    {
+        game = Games.newGame("FirstCardPlayer", numPlayers);
+    }
+
+    /**
+     * @return the winner of the game.
+     */
+    @Benchmark
+    public int play()
+    {
+        game.reset(SplitRandom.gameSeed(Games.SEED, gameIndex++));
+        game.play();
+        return game.getWinner();
+    }
+
+    /**
+     * @return a new state of the game.
+     */
+    @Benchmark
+    public GameState newGameState()
+    {
+        return new GameState(game);
+    }
+}
@@ -0,0 +1,47 @@
+package uno;
+
+/**
+ * Builds the games the benchmarks work on.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+final class Games
+{
+
+    /**
+     * The master seed of the games played by the benchmarks.
+     */
+    static final long SEED = 20131017L;
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private Games()
+    {
+    }
+
+    /**
+     * Builds a game ready to be played, with one strategy object per player
+     * for the whole benchmark.
+     * 
+     * @param playerClassName
+     *            The UnoPlayer strategy used by every player
+     * @param numPlayers
+     *            The number of players
+     * @return the game.
+     */
+    static Game newGame(String playerClassName, int numPlayers)
+    {
+        String[] names = new String[numPlayers];
+        PlayerFactory[] players = new PlayerFactory[numPlayers];
+        for (int i = 0; i < numPlayers; i++)
+        {
+            names[i] = "P" + i;
+            players[i] = new PlayerFactory(playerClassName,
+                    PlayerFactory.Policy.PER_THREAD);
+        }
+        return new Game(new Scoreboard(names), players, NullGameLog.INSTANCE,
+                new SplitRandom(SEED));
+    }
+}
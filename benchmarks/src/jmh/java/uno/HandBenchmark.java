@@ -0,0 +1,77 @@
+package uno;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A turn of the current player of a freshly dealt four-player game of
+ * MyUnoPlayers, and its parts: the copy of the hand handed to the strategy,
+ * and the check of the card it chose.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+public class HandBenchmark
+{
+    private Game game;
+
+    /**
+     * Builds the game.
+     */
+    @Setup
+    public void setUp()
+    {
+        game = Games.newGame("MyUnoPlayer", 4);
+    }
+
+    /**
+     * Plays a card, then takes it back.
+     * 
+     * @return the card played, or null.
+     */
+    @Benchmark
+    public Card play()
+    {
+        Hand h = game.h[game.currPlayer];
+        Card c = h.play(game);
+        if (c != null)
+        {
+            h.addCard(c);
+        }
+        return c;
+    }
+
+    /**
+     * @return the copy of the hand.
+     */
+    @Benchmark
+    public Object copyCards()
+    {
+        return game.h[game.currPlayer].copyCards();
+    }
+
+    /**
+     * Verifies the first legal card of the hand.
+     * 
+     * @return the index of the card verified.
+     */
+    @Benchmark
+    public int verify()
+    {
+        Hand h = game.h[game.currPlayer];
+        long legal = h.legalCardIds(game.upCard, game.calledColor);
+        int played = -1;
+        for (int i = 0; i < h.size() && played < 0; i++)
+        {
+            if ((legal & 1L << h.idAt(i)) != 0)
+            {
+                played = i;
+            }
+        }
+        h.verify(played, legal, game.upCard, game.calledColor);
+        return played;
+    }
+}
@@ -0,0 +1,79 @@
+package uno;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * MyUnoPlayer.play() over every case of the testCases.txt corpus, which is
+ * loaded once, up front, from the directory named by the uno.dir system
+ * property (the working directory by default).
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+@State(Scope.Thread)
+public class TestCasesBenchmark
+{
+    private UnoPlayer player;
+    private List<List<Card>> hands = new ArrayList<List<Card>>();
+    private List<Card> upCards = new ArrayList<Card>();
+    private List<UnoPlayer.Color> calledColors =
+            new ArrayList<UnoPlayer.Color>();
+    private List<GameState> states = new ArrayList<GameState>();
+
+    /**
+     * Loads the corpus. MyUnoPlayer and TestCaseCorpus are in the default
+     * package, which cannot be imported, so they are reached by reflection.
+     * 
+     * @throws Exception
+     *             if the corpus cannot be loaded.
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception
+    {
+        player = new PlayerFactory("MyUnoPlayer",
+                PlayerFactory.Policy.PER_GAME).newPlayer();
+        File dir = new File(System.getProperty("uno.dir", "."));
+        Class<?> corpusClass = Class.forName("TestCaseCorpus");
+        Object corpus = corpusClass.getMethod("load", File.class, File.class)
+                .invoke(null, new File(dir, "testCases.txt"), new File(dir,
+                        "testCases.bin"));
+        Method getHand = corpusClass.getMethod("getHand", int.class);
+        Method getUpCard = corpusClass.getMethod("getUpCard", int.class);
+        Method getCalledColor = corpusClass.getMethod("getCalledColor",
+                int.class);
+        int size = (Integer) corpusClass.getMethod("size").invoke(corpus);
+        for (int i = 0; i < size; i++)
+        {
+            Card upCard = (Card) getUpCard.invoke(corpus, i);
+            hands.add((List<Card>) getHand.invoke(corpus, i));
+            upCards.add(upCard);
+            calledColors.add((UnoPlayer.Color) getCalledColor.invoke(corpus,
+                    i));
+            states.add(new GameState(upCard));
+        }
+    }
+
+    /**
+     * @return the sum of the cards played.
+     */
+    @Benchmark
+    public long play()
+    {
+        long sum = 0;
+        for (int i = 0; i < hands.size(); i++)
+        {
+            sum += player.play(hands.get(i), upCards.get(i),
+                    calledColors.get(i), states.get(i));
+        }
+        return sum;
+    }
+}
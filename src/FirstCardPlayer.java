@@ -0,0 +1,52 @@
+import java.util.List;
+
+import uno.Card;
+import uno.GameState;
+import uno.UnoPlayer;
+
+/**
+ * A strategy that plays the first legal card of its hand and always calls
+ * red. It allocates nothing and looks at no other player, so it plays at any
+ * number of players, and a game between FirstCardPlayers measures the engine
+ * rather than the strategies. The tests and the benchmarks play it.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class FirstCardPlayer implements UnoPlayer
+{
+
+    /**
+     * @param hand
+     *            The player's hand
+     * @param upCard
+     *            The up card
+     * @param calledColor
+     *            The called color, if the up card is a wild
+     * @param state
+     *            The state of the game
+     * @return the index of the first legal card, or -1 if there is none.
+     */
+    public int play(List<Card> hand, Card upCard, Color calledColor,
+            GameState state)
+    {
+        for (int i = 0; i < hand.size(); i++)
+        {
+            if (hand.get(i).canPlayOn(upCard, calledColor))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param hand
+     *            The player's hand
+     * @return red.
+     */
+    public Color callColor(List<Card> hand)
+    {
+        return Color.RED;
+    }
+}
@@ -0,0 +1,82 @@
+import uno.Game;
+import uno.NullGameLog;
+import uno.PlayerFactory;
+import uno.Scoreboard;
+import uno.SplitRandom;
+
+/**
+ * The four-player games the JUnit tests play.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+final class GameFixture
+{
+
+    /**
+     * The master seed of the games.
+     */
+    static final long SEED = 20131017L;
+
+    /**
+     * The names of the players.
+     */
+    static final String[] NAMES = {"A", "B", "C", "D"};
+
+    /**
+     * This class is not meant to be instantiated.
+     */
+    private GameFixture()
+    {
+    }
+
+    /**
+     * Builds one factory per seat, all of the same strategy.
+     * 
+     * @param className
+     *            The UnoPlayer strategy of every seat
+     * @param policy
+     *            How long each player lives
+     * @return the factories.
+     */
+    static PlayerFactory[] seats(String className, PlayerFactory.Policy policy)
+    {
+        PlayerFactory[] players = new PlayerFactory[NAMES.length];
+        for (int i = 0; i < players.length; i++)
+        {
+            players[i] = new PlayerFactory(className, policy);
+        }
+        return players;
+    }
+
+    /**
+     * Builds game number i of the test match.
+     * 
+     * @param s
+     *            The scoreboard
+     * @param players
+     *            The factories of the players
+     * @param i
+     *            The number of the game
+     * @return the new game
+     */
+    static Game newGame(Scoreboard s, PlayerFactory[] players, int i)
+    {
+        return new Game(s, players, NullGameLog.INSTANCE,
+                SplitRandom.forGame(SEED, i));
+    }
+
+    /**
+     * Builds game number i of the test match, on a new scoreboard.
+     * 
+     * @param players
+     *            The factories of the players
+     * @param i
+     *            The number of the game
+     * @return the new game
+     */
+    static Game newGame(PlayerFactory[] players, int i)
+    {
+        return newGame(new Scoreboard(NAMES), players, i);
+    }
+}
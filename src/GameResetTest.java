@@ -0,0 +1,126 @@
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import uno.Game;
+import uno.PlayerFactory;
+import uno.Scoreboard;
+import uno.SplitRandom;
+
+/**
+ * JUnit test class for replaying games on a reset Game object.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class GameResetTest
+{
+    private static final int GAMES = 2000;
+    private static final long SEED = GameFixture.SEED;
+
+    /**
+     * The most a reset game may allocate, in steady state.
+     */
+    private static final long MAX_BYTES_PER_GAME = 64;
+
+    private String[] names = GameFixture.NAMES;
+    private PlayerFactory[] players = GameFixture.seats("MyUnoPlayer",
+            PlayerFactory.Policy.PER_GAME);
+
+    /**
+     * A reset game is dealt exactly as a new game from the same seed.
+     */
+    @Test
+    public void testResetMatchesNewGame()
+    {
+        Scoreboard fresh = new Scoreboard(names);
+        for (int i = 0; i < GAMES; i++)
+        {
+            GameFixture.newGame(fresh, players, i).play();
+        }
+
+        Scoreboard reused = new Scoreboard(names);
+        Game g = GameFixture.newGame(reused, players, 0);
+        g.play();
+        for (int i = 1; i < GAMES; i++)
+        {
+            g.reset(SplitRandom.gameSeed(SEED, i));
+            g.play();
+        }
+
+        for (int i = 0; i < names.length; i++)
+        {
+            assertTrue("Scores differ for player " + i,
+                    fresh.getScore(i) == reused.getScore(i));
+        }
+    }
+
+    /**
+     * Identical strategies, blind to their seats, dealt every rotation of the
+     * same seed share the deal's points equally, so a rotation replays the
+     * deal seat for seat.
+     */
+    @Test
+    public void testRotationsShareTheDeal()
+    {
+        PlayerFactory[] same = GameFixture.seats("FirstCardPlayer",
+                PlayerFactory.Policy.PER_GAME);
+        for (int d = 0; d < GAMES / names.length; d++)
+        {
+            Scoreboard s = new Scoreboard(names);
+            Game g = GameFixture.newGame(s, same, d);
+            g.play();
+            for (int r = 1; r < names.length; r++)
+            {
+                g.reset(SplitRandom.gameSeed(SEED, d), r);
+                g.play();
+            }
+            for (int i = 1; i < names.length; i++)
+            {
+                assertTrue("Deal " + d + " scored unequally",
+                        s.getScore(i) == s.getScore(0));
+            }
+        }
+    }
+
+    /**
+     * Once warmed up, replaying games on a reset Game allocates next to
+     * nothing, given strategies that allocate nothing themselves.
+     */
+    @Test
+    public void testResetAllocatesAlmostNothing()
+    {
+        PlayerFactory[] reused = GameFixture.seats("FirstCardPlayer",
+                PlayerFactory.Policy.PER_THREAD);
+        Game g = GameFixture.newGame(reused, 0);
+        // warm up
+        for (int i = 0; i < 10 * GAMES; i++)
+        {
+            g.reset(SplitRandom.gameSeed(SEED, i));
+            g.play();
+        }
+
+        long before = allocatedBytes();
+        for (int i = 0; i < GAMES; i++)
+        {
+            g.reset(SplitRandom.gameSeed(SEED, i));
+            g.play();
+        }
+        long bytesPerGame = (allocatedBytes() - before) / GAMES;
+
+        assertTrue("Reset games allocated " + bytesPerGame + " bytes each",
+                bytesPerGame <= MAX_BYTES_PER_GAME);
+    }
+
+    /**
+     * @return the number of bytes allocated so far by the current thread.
+     */
+    private static long allocatedBytes()
+    {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean()).getThreadAllocatedBytes(Thread
+                .currentThread().getId());
+    }
+}
@@ -0,0 +1,100 @@
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import uno.Card;
+import uno.Game;
+import uno.GameState;
+import uno.PlayerFactory;
+import uno.TimeBudget;
+import uno.UnoPlayer;
+
+/**
+ * JUnit test class for the rejection of illegal plays.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class IllegalPlayTest
+{
+    private PlayerFactory[] players = GameFixture.seats(NoPlayPlayer.class
+            .getName(), PlayerFactory.Policy.PER_GAME);
+
+    /**
+     * A strategy cannot decline to play a legal card by returning -2.
+     */
+    @Test
+    public void testMinusTwoRejected()
+    {
+        assertRejected(null);
+    }
+
+    /**
+     * A strategy under a time budget cannot decline to play a legal card by
+     * returning -2 either.
+     */
+    @Test
+    public void testMinusTwoRejectedUnderBudget()
+    {
+        TimeBudget budget = new TimeBudget(1000000000L, 0,
+                TimeBudget.Policy.DRAW);
+        try
+        {
+            assertRejected(budget);
+        }
+        finally
+        {
+            budget.shutdown();
+        }
+    }
+
+    /**
+     * Plays a game of NoPlayPlayers, which must stop at the first illegal
+     * play.
+     * 
+     * @param budget
+     *            The time budget of the game, or null
+     */
+    private void assertRejected(TimeBudget budget)
+    {
+        Game g = GameFixture.newGame(players, 0);
+        g.setTimeBudget(budget);
+        try
+        {
+            g.play();
+            fail("A play of -2 was accepted.");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage(), e.getMessage().contains(
+                    "illegal play"));
+        }
+    }
+
+    /**
+     * Returns -2 whenever it holds a legal card, and draws (-1) otherwise.
+     */
+    public static class NoPlayPlayer implements UnoPlayer
+    {
+        public int play(List<Card> hand, Card upCard, Color calledColor,
+                GameState state)
+        {
+            for (Card c : hand)
+            {
+                if (c.canPlayOn(upCard, calledColor))
+                {
+                    return -2;
+                }
+            }
+            return -1;
+        }
+
+        public Color callColor(List<Card> hand)
+        {
+            return Color.RED;
+        }
+    }
+}
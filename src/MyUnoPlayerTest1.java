@@ -1,13 +1,10 @@
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 import org.junit.Test;
 
@@ -137,32 +134,19 @@ public class MyUnoPlayerTest1
      * @throws FileNotFoundException
      *             If the testCases.txt file does not exist.
      * @throws IOException
-     *             if the file doesn't have enough lines.
+     *             if the corpus cannot be read or compiled.
      */
     private void testCases(int start, int stop) throws FileNotFoundException,
         IOException
     {
-        BufferedReader br = new BufferedReader(new FileReader(
-                "testCases.txt"));
-        int n = 1;
-        String handLine = null;
-        while ((handLine = br.readLine()) != null)
+        TestCaseCorpus corpus = TestCaseCorpus.shared();
+        for (int n = start; n <= stop && n <= corpus.size(); n++)
         {
-            String upCardLine = br.readLine();
-            String calledColorLine = br.readLine();
-            String validPlaysLine = br.readLine();
-            // consume --------- delimiter
-            br.readLine();
-
-            if (n >= start && n <= stop)
-            {
-                // run n-th test
-                testStrings(handLine, upCardLine, calledColorLine,
-                        validPlaysLine, n);
-            }
-            n++;
+            // run n-th test
+            testHand(corpus.getHand(n - 1), corpus.getUpCard(n - 1),
+                    corpus.getCalledColor(n - 1),
+                    readValidPlays(corpus.getValidPlays(n - 1)), n);
         }
-        br.close();
     }
 
     /**
@@ -290,86 +274,26 @@ public class MyUnoPlayerTest1
     }
 
     /**
-     * Read a hand from its string representation.
+     * List the valid plays of a test case.
      * 
-     * @param handLine
-     *            The string representation for the hand
-     * @return the hand as an arraylist of cards
+     * @param validPlays
+     *            The bitmask of the valid plays
+     * @return The indices of the valid plays, or -1 if there are none
      */
-    private ArrayList<Card> readHandString(String handLine)
+    private ArrayList<Integer> readValidPlays(long validPlays)
     {
-        ArrayList<Card> hand = new ArrayList<Card>();
-        Scanner handLineScanner = new Scanner(handLine);
-        handLineScanner.useDelimiter(",");
-        while (handLineScanner.hasNext())
+        ArrayList<Integer> intList = new ArrayList<Integer>();
+        for (int i = 0; i < 64; i++)
         {
-            String cardString = handLineScanner.next();
-            Card card = readCardString(cardString);
-            hand.add(card);
+            if ((validPlays & 1L << i) != 0)
+            {
+                intList.add(i);
+            }
         }
-        handLineScanner.close();
-        return hand;
-    }
-
-    /**
-     * Read a card from its string representation.
-     * 
-     * @param cardString
-     *            The String representation for the card.
-     * @return The card
-     */
-    private Card readCardString(String cardString)
-    {
-        Scanner upCardLineScanner = new Scanner(cardString);
-        Card card = new Card(UnoPlayer.Color.valueOf(upCardLineScanner.next()),
-                UnoPlayer.Rank.valueOf(upCardLineScanner.next()),
-                upCardLineScanner.nextInt());
-        upCardLineScanner.close();
-        return card;
-    }
-
-    /**
-     * Read a comma separated list of integers from a string.
-     * 
-     * @param intString
-     *            The string of comma separated integers
-     * @return The list of integers
-     */
-    private ArrayList<Integer> readIntString(String intString)
-    {
-        ArrayList<Integer> intList = new ArrayList<Integer>();
-        Scanner intStringScanner = new Scanner(intString);
-        intStringScanner.useDelimiter(",");
-        while (intStringScanner.hasNextInt())
+        if (intList.isEmpty())
         {
-            intList.add(new Integer(intStringScanner.nextInt()));
+            intList.add(-1);
         }
-        intStringScanner.close();
         return intList;
     }
-
-    /**
-     * Test case from strings to represent games state.
-     * 
-     * @param handLine
-     *            A string representing the hand.
-     * @param upCardLine
-     *            A string representing the up card.
-     * @param calledColorLine
-     *            A string representing the called color.
-     * @param validPlaysLine
-     *            A string representing the valid plays.
-     * @param n
-     *            the test number.
-     */
-    private void testStrings(String handLine, String upCardLine,
-            String calledColorLine, String validPlaysLine, int n)
-    {
-        ArrayList<Card> hand = readHandString(handLine);
-        Card upCard = readCardString(upCardLine);
-        UnoPlayer.Color calledColor = UnoPlayer.Color.valueOf(calledColorLine);
-        ArrayList<Integer> validPlays = readIntString(validPlaysLine);
-
-        testHand(hand, upCard, calledColor, validPlays, n);
-    }
 }
@@ -0,0 +1,380 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import uno.Card;
+import uno.GameState;
+import uno.PlayerFactory;
+import uno.UnoPlayer;
+
+/**
+ * <p>
+ * Validates UnoPlayer strategies against the whole test case corpus (see
+ * TestCaseCorpus), as MyUnoPlayerTest1 does, but on every core, and without
+ * stopping at the first failure. The corpus is split into one contiguous
+ * share per worker thread, and each worker plays its share with its own
+ * instance of the strategy. Every failure is kept, with the number of its
+ * test case, the play chosen and the valid plays, as a bitmask.
+ * </p>
+ * <p>
+ * Usage: StrategyValidator [--threads N] [--show N] StrategyClass..., which
+ * prints, for each strategy, its number of failures, its decisions per
+ * second and its first N failures (10 by default). The exit status is 1 if
+ * any strategy failed.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class StrategyValidator
+{
+
+    private TestCaseCorpus corpus;
+    private int numThreads;
+
+    /**
+     * Instantiate a validator.
+     * 
+     * @param corpus
+     *            The test cases
+     * @param numThreads
+     *            The number of worker threads
+     */
+    public StrategyValidator(TestCaseCorpus corpus, int numThreads)
+    {
+        this.corpus = corpus;
+        this.numThreads = Math.max(1, Math.min(numThreads, corpus.size()));
+    }
+
+    /**
+     * Validate a strategy against every test case.
+     * 
+     * @param strategy
+     *            The factory of the strategy; each worker gets its own
+     *            instance
+     * @return the report of the validation.
+     */
+    public Report validate(PlayerFactory strategy)
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        List<Future<List<Failure>>> shares =
+                new ArrayList<Future<List<Failure>>>();
+        long start = System.nanoTime();
+        try
+        {
+            for (int t = 0; t < numThreads; t++)
+            {
+                int first = (int) ((long) corpus.size() * t / numThreads);
+                int last = (int) ((long) corpus.size() * (t + 1) / numThreads);
+                shares.add(pool.submit(new Worker(strategy, first, last)));
+            }
+            List<Failure> failures = new ArrayList<Failure>();
+            for (Future<List<Failure>> share : shares)
+            {
+                failures.addAll(share.get());
+            }
+            return new Report(strategy.getClassName(), failures,
+                    2L * corpus.size(), System.nanoTime() - start);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Validation interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Validation failed.",
+                    e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * A test case failed by a strategy.
+     */
+    public static class Failure
+    {
+        /**
+         * The play recorded for a strategy that threw before choosing one.
+         */
+        public static final int NO_PLAY = Integer.MIN_VALUE;
+
+        private int testCase;
+        private int played;
+        private long validPlays;
+        private UnoPlayer.Color calledColor;
+        private Throwable exception;
+
+        /**
+         * @param testCase
+         *            The zero-based number of the test case
+         * @param played
+         *            The play chosen, or NO_PLAY
+         * @param validPlays
+         *            The bitmask of the valid plays
+         * @param calledColor
+         *            The color called, if that was the fault, or null
+         * @param exception
+         *            The exception the strategy threw, or null
+         */
+        Failure(int testCase, int played, long validPlays,
+                UnoPlayer.Color calledColor, Throwable exception)
+        {
+            this.testCase = testCase;
+            this.played = played;
+            this.validPlays = validPlays;
+            this.calledColor = calledColor;
+            this.exception = exception;
+        }
+
+        /**
+         * @return the zero-based number of the test case.
+         */
+        public int getTestCase()
+        {
+            return testCase;
+        }
+
+        /**
+         * @return the play chosen by the strategy, or NO_PLAY if it threw
+         *         before choosing one.
+         */
+        public int getPlayed()
+        {
+            return played;
+        }
+
+        /**
+         * @return the bitmask of the valid plays: bit i is set if card i of
+         *         the hand may be played.
+         */
+        public long getValidPlays()
+        {
+            return validPlays;
+        }
+
+        /**
+         * @return the color called, if that was the fault, or null.
+         */
+        public UnoPlayer.Color getCalledColor()
+        {
+            return calledColor;
+        }
+
+        /**
+         * @return the exception the strategy threw, if that was the fault, or
+         *         null.
+         */
+        public Throwable getException()
+        {
+            return exception;
+        }
+
+        /**
+         * @return the failure, for display. Test cases are numbered from 1,
+         *         as in MyUnoPlayerTest1.
+         */
+        public String toString()
+        {
+            String s = "Test " + (testCase + 1) + ": ";
+            if (exception != null)
+            {
+                return s + "threw " + exception;
+            }
+            if (calledColor != null)
+            {
+                return s + "called " + calledColor;
+            }
+            StringBuilder valid = new StringBuilder();
+            for (int i = 0; i < 64; i++)
+            {
+                if ((validPlays & 1L << i) != 0)
+                {
+                    valid.append(valid.length() == 0 ? "" : ",").append(i);
+                }
+            }
+            return s + "played " + played + ", valid plays "
+                    + (valid.length() == 0 ? "-1" : valid);
+        }
+    }
+
+    /**
+     * The outcome of the validation of a strategy.
+     */
+    public static class Report
+    {
+        private String strategy;
+        private List<Failure> failures;
+        private long decisions;
+        private long nanos;
+
+        /**
+         * @param strategy
+         *            The name of the strategy
+         * @param failures
+         *            The failures, in order of test case
+         * @param decisions
+         *            The number of decisions taken
+         * @param nanos
+         *            The wall time of the validation
+         */
+        Report(String strategy, List<Failure> failures, long decisions,
+                long nanos)
+        {
+            this.strategy = strategy;
+            this.failures = failures;
+            this.decisions = decisions;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the failures, in order of test case.
+         */
+        public List<Failure> getFailures()
+        {
+            return failures;
+        }
+
+        /**
+         * @return the number of decisions (plays and color calls) per second.
+         */
+        public double getDecisionsPerSecond()
+        {
+            return decisions * 1e9 / nanos;
+        }
+
+        /**
+         * @return the summary of the validation, for display.
+         */
+        public String toString()
+        {
+            return String.format("%-20s %6d failures  %12.0f decisions/s "
+                    + "(%.1f ms)", strategy, failures.size(),
+                    getDecisionsPerSecond(), nanos / 1e6);
+        }
+    }
+
+    /**
+     * Validates a contiguous share of the corpus with its own instance of
+     * the strategy.
+     */
+    private class Worker implements Callable<List<Failure>>
+    {
+        private PlayerFactory strategy;
+        private int first;
+        private int last;
+
+        /**
+         * @param strategy
+         *            The factory of the strategy
+         * @param first
+         *            The number of the first test case
+         * @param last
+         *            One past the number of the last test case
+         */
+        Worker(PlayerFactory strategy, int first, int last)
+        {
+            this.strategy = strategy;
+            this.first = first;
+            this.last = last;
+        }
+
+        /**
+         * @return the failures of the share, in order.
+         */
+        public List<Failure> call()
+        {
+            UnoPlayer player = strategy.newPlayer();
+            List<Failure> failures = new ArrayList<Failure>();
+            for (int n = first; n < last; n++)
+            {
+                List<Card> hand = corpus.getHand(n);
+                Card upCard = corpus.getUpCard(n);
+                long valid = corpus.getValidPlays(n);
+                int played = Failure.NO_PLAY;
+                try
+                {
+                    played = player.play(hand, upCard,
+                            corpus.getCalledColor(n), new GameState(upCard));
+                    if (!corpus.isValidPlay(n, played))
+                    {
+                        failures.add(new Failure(n, played, valid, null,
+                                null));
+                    }
+                    UnoPlayer.Color color = player.callColor(hand);
+                    if (color == null || color == UnoPlayer.Color.NONE)
+                    {
+                        failures.add(new Failure(n, played, valid, color,
+                                null));
+                    }
+                }
+                catch (RuntimeException e)
+                {
+                    failures.add(new Failure(n, played, valid, null, e));
+                }
+            }
+            return failures;
+        }
+    }
+
+    /**
+     * Validate the strategies named on the command line.
+     * 
+     * @param args
+     *            The switches, and the class names of the strategies
+     * @throws IOException
+     *             if the corpus cannot be loaded.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int show = 10;
+        List<String> strategies = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("--threads") && i + 1 < args.length)
+            {
+                numThreads = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--show") && i + 1 < args.length)
+            {
+                show = Integer.valueOf(args[++i]);
+            }
+            else
+            {
+                strategies.add(args[i]);
+            }
+        }
+        if (strategies.isEmpty())
+        {
+            System.out.println("Usage: StrategyValidator [--threads N] "
+                    + "[--show N] StrategyClass...");
+            System.exit(1);
+        }
+
+        StrategyValidator validator = new StrategyValidator(
+                TestCaseCorpus.shared(), numThreads);
+        boolean failed = false;
+        for (String name : strategies)
+        {
+            Report report = validator.validate(new PlayerFactory(name,
+                    PlayerFactory.Policy.PER_GAME));
+            System.out.println(report);
+            List<Failure> failures = report.getFailures();
+            for (int i = 0; i < failures.size() && i < show; i++)
+            {
+                System.out.println("  " + failures.get(i));
+            }
+            failed |= !failures.isEmpty();
+        }
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import uno.Card;
+import uno.UnoPlayer;
+
+/**
+ * <p>
+ * The testCases.txt corpus, compiled into a compact binary file that is
+ * memory-mapped rather than read. The text file is only parsed when the
+ * binary one is missing or older; the binary one is then read by the
+ * operating system page by page, as it is used. Each test case is a hand
+ * of card ids, the up card, the called color and a bitmask of the valid
+ * plays (bit i set if card i of the hand may be played), so a strategy can
+ * be checked against the whole corpus in milliseconds.
+ * </p>
+ * <p>
+ * The binary file holds a header (the magic number, the format version and
+ * the number of test cases), the offset of each test case, then the test
+ * cases: the hand size, the ids of the cards of the hand, the id of the up
+ * card and the ordinal of the called color, one byte each, and the valid
+ * plays as a long.
+ * </p>
+ * <p>
+ * The corpus is immutable, and shared() gives every test the same instance.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class TestCaseCorpus
+{
+
+    /**
+     * The name of the text corpus.
+     */
+    public static final String TEXT_FILE = "testCases.txt";
+
+    /**
+     * The name of the compiled corpus.
+     */
+    public static final String BINARY_FILE = "testCases.bin";
+
+    private static final int MAGIC = 0x554e4f43;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private static TestCaseCorpus shared;
+
+    private ByteBuffer data;
+    private int size;
+
+    /**
+     * Wrap a compiled corpus.
+     * 
+     * @param data
+     *            The contents of the binary file
+     * @throws IOException
+     *             if it is not a compiled corpus.
+     */
+    private TestCaseCorpus(ByteBuffer data) throws IOException
+    {
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION)
+        {
+            throw new IOException("Not a compiled test case corpus.");
+        }
+        this.data = data;
+        size = data.getInt(8);
+    }
+
+    /**
+     * Get the corpus of the working directory, compiling it if needed. It is
+     * loaded once, and shared by every caller.
+     * 
+     * @return the corpus.
+     * @throws IOException
+     *             if the corpus cannot be read or compiled.
+     */
+    public static synchronized TestCaseCorpus shared() throws IOException
+    {
+        if (shared == null)
+        {
+            shared = load(new File(TEXT_FILE), new File(BINARY_FILE));
+        }
+        return shared;
+    }
+
+    /**
+     * Load a corpus, compiling it first if the binary file is missing or older
+     * than the text one.
+     * 
+     * @param text
+     *            The text corpus
+     * @param binary
+     *            The compiled corpus
+     * @return the corpus.
+     * @throws IOException
+     *             if the corpus cannot be read or compiled.
+     */
+    public static TestCaseCorpus load(File text, File binary)
+        throws IOException
+    {
+        if (!binary.exists() || binary.lastModified() < text.lastModified())
+        {
+            compile(text, binary);
+        }
+        RandomAccessFile file = new RandomAccessFile(binary, "r");
+        try
+        {
+            FileChannel channel = file.getChannel();
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            return new TestCaseCorpus(data);
+        }
+        finally
+        {
+            // The mapping outlives the file.
+            file.close();
+        }
+    }
+
+    /**
+     * Compile a text corpus. Each of its test cases is five lines: the hand
+     * (comma-separated cards), the up card, the called color, the valid plays
+     * (comma-separated indices, or -1 for none) and a line of dashes. A card
+     * is its color, rank and number, separated by spaces.
+     * 
+     * @param text
+     *            The text corpus
+     * @param binary
+     *            The compiled corpus to write
+     * @throws IOException
+     *             if the text corpus cannot be read or is malformed, or the
+     *             compiled one cannot be written.
+     */
+    public static void compile(File text, File binary) throws IOException
+    {
+        List<byte[]> hands = new ArrayList<byte[]>();
+        List<byte[]> states = new ArrayList<byte[]>();
+        List<Long> validPlays = new ArrayList<Long>();
+        BufferedReader br = new BufferedReader(new FileReader(text));
+        try
+        {
+            String handLine;
+            while ((handLine = br.readLine()) != null)
+            {
+                String[] cards = handLine.split(",");
+                byte[] hand = new byte[cards.length];
+                for (int i = 0; i < cards.length; i++)
+                {
+                    hand[i] = cardId(cards[i]);
+                }
+                byte upCard = cardId(br.readLine());
+                byte color = (byte) UnoPlayer.Color.valueOf(
+                        br.readLine().trim()).ordinal();
+                long valid = 0;
+                for (String play : br.readLine().split(","))
+                {
+                    // -1 means that no card may be played
+                    int index = Integer.parseInt(play.trim());
+                    if (index >= 0)
+                    {
+                        valid |= 1L << index;
+                    }
+                }
+                // the --------- delimiter
+                br.readLine();
+                hands.add(hand);
+                states.add(new byte[] { upCard, color });
+                validPlays.add(valid);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            throw new IOException("Malformed test case " + (hands.size() + 1)
+                    + " in " + text + ".", e);
+        }
+        finally
+        {
+            br.close();
+        }
+
+        File partial = new File(binary.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(partial)));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hands.size());
+            int offset = HEADER_SIZE + 4 * hands.size();
+            for (byte[] hand : hands)
+            {
+                out.writeInt(offset);
+                offset += 1 + hand.length + 2 + 8;
+            }
+            for (int i = 0; i < hands.size(); i++)
+            {
+                out.writeByte(hands.get(i).length);
+                out.write(hands.get(i));
+                out.write(states.get(i));
+                out.writeLong(validPlays.get(i));
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        if (binary.exists() && !binary.delete() || !partial.renameTo(binary))
+        {
+            throw new IOException("Cannot write " + binary + ".");
+        }
+    }
+
+    /**
+     * Parses a card.
+     * 
+     * @param cardString
+     *            The color, rank and number of the card
+     * @return the id of the card.
+     */
+    private static byte cardId(String cardString)
+    {
+        String[] parts = cardString.trim().split(" +");
+        return (byte) Card.valueOf(UnoPlayer.Color.valueOf(parts[0]),
+                UnoPlayer.Rank.valueOf(parts[1]), Integer.parseInt(parts[2]))
+                .getId();
+    }
+
+    /**
+     * @return the number of test cases.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Finds a test case.
+     * 
+     * @param n
+     *            The zero-based number of the test case
+     * @return the offset of the test case in the data.
+     */
+    private int offset(int n)
+    {
+        return data.getInt(HEADER_SIZE + 4 * n);
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @return the number of cards in its hand.
+     */
+    public int getHandSize(int n)
+    {
+        return data.get(offset(n));
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @return its hand.
+     */
+    public ArrayList<Card> getHand(int n)
+    {
+        int at = offset(n);
+        int handSize = data.get(at);
+        ArrayList<Card> hand = new ArrayList<Card>(handSize);
+        for (int i = 1; i <= handSize; i++)
+        {
+            hand.add(Card.forId(data.get(at + i)));
+        }
+        return hand;
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @return its up card.
+     */
+    public Card getUpCard(int n)
+    {
+        int at = offset(n);
+        return Card.forId(data.get(at + 1 + data.get(at)));
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @return its called color.
+     */
+    public UnoPlayer.Color getCalledColor(int n)
+    {
+        int at = offset(n);
+        return UnoPlayer.Color.values()[data.get(at + 2 + data.get(at))];
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @return the bitmask of its valid plays: bit i is set if card i of the
+     *         hand may be played.
+     */
+    public long getValidPlays(int n)
+    {
+        int at = offset(n);
+        return data.getLong(at + 3 + data.get(at));
+    }
+
+    /**
+     * @param n
+     *            The zero-based number of a test case
+     * @param play
+     *            The index of a card of its hand, or -1 for none
+     * @return true if that play is valid. Not playing is valid only if no card
+     *         may be played.
+     */
+    public boolean isValidPlay(int n, int play)
+    {
+        long valid = getValidPlays(n);
+        if (play == -1)
+        {
+            return valid == 0;
+        }
+        return play >= 0 && play < getHandSize(n)
+                && (valid & 1L << play) != 0;
+    }
+
+    /**
+     * Compile a corpus.
+     * 
+     * @param args
+     *            The text corpus and the compiled corpus to write (by default
+     *            testCases.txt and testCases.bin)
+     * @throws IOException
+     *             if the corpus cannot be compiled.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        File text = new File(args.length > 0 ? args[0] : TEXT_FILE);
+        File binary = new File(args.length > 1 ? args[1] : BINARY_FILE);
+        compile(text, binary);
+        System.out.println("Compiled " + load(text, binary).size()
+                + " test cases into " + binary + ".");
+    }
+}
@@ -3,8 +3,11 @@ import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Scanner;
 
-import uno.Game;
+import uno.Match;
+import uno.PlayerFactory;
 import uno.Scoreboard;
+import uno.SequentialTest;
+import uno.TimeBudget;
 
 /**
  * <p>
@@ -54,6 +57,78 @@ public class UnoSimulation
     private static ArrayList<String> playerNames = new ArrayList<String>();
     private static ArrayList<String> playerClasses = new ArrayList<String>();
 
+    /**
+     * The number of worker threads the match is split across. A value of 1
+     * plays every game on the main thread.
+     */
+    static int numThreads = 1;
+
+    /**
+     * When positive, every game runs on its own (virtual) thread, and this is
+     * the maximum number of games in flight at once.
+     */
+    static int maxGamesInFlight = 0;
+
+    /**
+     * The master seed of the match, or null to pick a random one.
+     */
+    static Long seed = null;
+
+    /**
+     * How long the strategy objects live: a new one per game (the default), or
+     * one per worker thread for strategies that are safe to reuse.
+     */
+    static PlayerFactory.Policy playerPolicy = PlayerFactory.Policy.PER_GAME;
+
+    /**
+     * Whether decks pick their cards at random as they are drawn instead of
+     * being shuffled up front.
+     */
+    static boolean lazyShuffle = false;
+
+    /**
+     * The number of threads shuffling decks ahead of the games, 0 for none.
+     */
+    static int dealProducers = 0;
+
+    /**
+     * Whether to print statistics over the games after the scores.
+     */
+    static boolean printStatistics = false;
+
+    /**
+     * Whether every deal is replayed with every rotation of the seats, and
+     * the players compared deal by deal.
+     */
+    static boolean duplicate = false;
+
+    /**
+     * Time one decision of the strategies in this many, 0 for none.
+     */
+    static int latencySampling = 0;
+
+    /**
+     * The time allowed per decision and per game, in milliseconds, 0 for no
+     * limit.
+     */
+    static double[] budgetMillis = { 0, 0 };
+
+    /**
+     * What happens to a decision that runs out of time.
+     */
+    static TimeBudget.Policy budgetPolicy = TimeBudget.Policy.DRAW;
+
+    /**
+     * The win rates of the first player under H0 and H1 of a sequential test
+     * stopping the match early, or null to play every game.
+     */
+    static double[] sprtWinRates = null;
+
+    /**
+     * The error rates (both alpha and beta) of the sequential test.
+     */
+    static double sprtError = 0.05;
+
     /**
      * Process the command line arguments.
      * 
@@ -64,27 +139,104 @@ public class UnoSimulation
     private static int processCommandLine(String[] args)
     {
         int numGames = 0;
-        if (args.length < 2 || args.length > 3)
+        if (args.length < 2)
         {
-            System.out
-                    .println(
-                    "Usage: UnoSimulation playerFileName numberOfGames "
-                            + "[verbose|quiet].");
-            System.exit(1);
+            usage();
         }
         playerFileName = args[0];
         numGames = Integer.valueOf(args[1]);
-        if (args.length == 3 && args[2].equals("quiet"))
-        {
-            printVerbose = false;
-        }
-        if (args.length == 3 && args[2].equals("verbose"))
+        for (int i = 2; i < args.length; i++)
         {
-            printVerbose = true;
+            if (args[i].equals("quiet"))
+            {
+                printVerbose = false;
+            }
+            else if (args[i].equals("verbose"))
+            {
+                printVerbose = true;
+            }
+            else if (args[i].equals("--threads") && i + 1 < args.length)
+            {
+                numThreads = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--virtual") && i + 1 < args.length)
+            {
+                maxGamesInFlight = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--seed") && i + 1 < args.length)
+            {
+                seed = Long.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--reuse-players"))
+            {
+                playerPolicy = PlayerFactory.Policy.PER_THREAD;
+            }
+            else if (args[i].equals("--lazy-shuffle"))
+            {
+                lazyShuffle = true;
+            }
+            else if (args[i].equals("--stats"))
+            {
+                printStatistics = true;
+            }
+            else if (args[i].equals("--duplicate"))
+            {
+                duplicate = true;
+            }
+            else if (args[i].equals("--preshuffle") && i + 1 < args.length)
+            {
+                dealProducers = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--latency") && i + 1 < args.length)
+            {
+                latencySampling = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--decision-budget")
+                    && i + 1 < args.length)
+            {
+                budgetMillis[0] = Double.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--game-budget") && i + 1 < args.length)
+            {
+                budgetMillis[1] = Double.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--budget-policy") && i + 1 < args.length)
+            {
+                budgetPolicy = TimeBudget.Policy.valueOf(args[++i]
+                        .toUpperCase());
+            }
+            else if (args[i].equals("--sprt") && i + 2 < args.length)
+            {
+                sprtWinRates = new double[] { Double.valueOf(args[++i]),
+                        Double.valueOf(args[++i]) };
+            }
+            else if (args[i].equals("--sprt-error") && i + 1 < args.length)
+            {
+                sprtError = Double.valueOf(args[++i]);
+            }
+            else
+            {
+                usage();
+            }
         }
         return numGames;
     }
 
+    /**
+     * Print the command line usage and exit.
+     */
+    private static void usage()
+    {
+        System.out.println("Usage: UnoSimulation playerFileName numberOfGames "
+                + "[verbose|quiet] [--threads N] [--virtual N] [--seed S] "
+                + "[--reuse-players] [--lazy-shuffle] [--preshuffle N] "
+                + "[--stats] [--duplicate] [--latency N] "
+                + "[--sprt P0 P1 [--sprt-error E]] "
+                + "[--decision-budget MS] [--game-budget MS] "
+                + "[--budget-policy draw|fallback|forfeit].");
+        System.exit(1);
+    }
+
     /**
      * Load the player data from the player file.
      * 
@@ -117,7 +269,28 @@ public class UnoSimulation
      *            should contain an integer specifying how many games to play in
      *            the match. The optional second command-line argument (args[1])
      *            should be either the word "verbose" or "quiet" and controls
-     *            the magnitude of output.
+     *            the magnitude of output. The optional switch "--threads N"
+     *            splits the games across N worker threads, while
+     *            "--virtual N" runs every game on its own virtual thread with
+     *            at most N games in flight. "--seed S" replays the match
+     *            dealt from master seed S, and "--reuse-players" creates
+     *            the strategy objects once per thread instead of once per
+     *            game. "--lazy-shuffle" picks the cards at random as they
+     *            are drawn rather than shuffling the decks up front, and
+     *            "--preshuffle N" shuffles the decks ahead of the games on N
+     *            threads of their own. "--stats" prints statistics over the
+     *            games (win rates, game lengths...) after the scores.
+     *            "--duplicate" plays every deal once per rotation of the
+     *            seats and compares the players deal by deal, and
+     *            "--latency N" times one decision of the strategies in N
+     *            and prints their percentiles. "--decision-budget MS" and
+     *            "--game-budget MS" limit the time a strategy may take per
+     *            decision and per game; "--budget-policy" chooses what
+     *            happens to a decision that runs out of time.
+     *            "--sprt P0 P1" stops the match as soon as a sequential test
+     *            decides whether the first player wins a fraction P0 or P1 of
+     *            the games, with error rates of 5% (or E, given
+     *            "--sprt-error E").
      * @throws Exception
      *             when it fails to load the player file.
      */
@@ -125,13 +298,69 @@ public class UnoSimulation
     {
         int numGames = processCommandLine(args);
         loadPlayerData();
-        Scoreboard s = new Scoreboard(playerNames.toArray(new String[0]));
-        for (int i = 0; i < numGames; i++)
+        Match m = new Match(playerNames.toArray(new String[0]),
+                PlayerFactory.forClassNames(playerClasses, playerPolicy),
+                printVerbose);
+        if (seed != null)
+        {
+            m.setSeed(seed);
+        }
+        m.setLazyShuffle(lazyShuffle);
+        m.setDealProducers(dealProducers);
+        m.setCollectStatistics(printStatistics);
+        m.setDuplicate(duplicate);
+        m.setLatencySampling(latencySampling);
+        TimeBudget budget = null;
+        if (budgetMillis[0] > 0 || budgetMillis[1] > 0)
+        {
+            budget = new TimeBudget((long) (budgetMillis[0] * 1e6),
+                    (long) (budgetMillis[1] * 1e6), budgetPolicy);
+            budget.setWatchdogsPerSeat(Math.max(numThreads,
+                    maxGamesInFlight));
+            m.setTimeBudget(budget);
+        }
+        SequentialTest test = null;
+        if (sprtWinRates != null)
         {
-            Game g = new Game(s, playerClasses, printVerbose);
-            g.play();
+            test = new SequentialTest(0, sprtWinRates[0], sprtWinRates[1],
+                    sprtError, sprtError);
+            m.setSequentialTest(test);
+        }
+        Scoreboard s;
+        if (maxGamesInFlight > 0)
+        {
+            s = m.playEachOnOwnThread(numGames, maxGamesInFlight);
+        }
+        else
+        {
+            s = m.play(numGames, numThreads);
+        }
+        if (printVerbose)
+        {
+            System.out.println("Match seed: " + m.getSeed());
         }
         System.out.println(s);
+        if (printStatistics)
+        {
+            System.out.println(m.getStatistics());
+        }
+        if (duplicate)
+        {
+            System.out.println(m.getDuplicateResults());
+        }
+        if (m.getLatencies() != null)
+        {
+            System.out.println(m.getLatencies());
+        }
+        if (budget != null)
+        {
+            System.out.println(budget);
+            budget.shutdown();
+        }
+        if (test != null)
+        {
+            System.out.println(test);
+        }
     }
 
 }
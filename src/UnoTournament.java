@@ -0,0 +1,97 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import uno.Tournament;
+
+/**
+ * <p>
+ * Runs a round-robin tournament between the given strategies and prints their
+ * standings.
+ * </p>
+ * <p>
+ * Usage: UnoTournament [--table N] [--games N] [--threads N] [--seed S]
+ * [--rounds N] [--permutations] strategyClass... , where --table sets the
+ * number of players at each table (4 by default), --games the number of games
+ * of each match (100), --threads the number of matches played at once (one
+ * per processor), --rounds plays that many balanced rounds instead of every
+ * combination of strategies, and --permutations seats each table in every
+ * order rather than every rotation.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class UnoTournament
+{
+
+    /**
+     * Run the tournament.
+     * 
+     * @param args
+     *            The switches, then the strategy class names
+     */
+    public static void main(String[] args)
+    {
+        int tableSize = 4;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        List<String> strategies = new ArrayList<String>();
+        Tournament.Seating seating = Tournament.Seating.ROTATIONS;
+        int games = 100;
+        int rounds = 0;
+        Long seed = null;
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("--table") && i + 1 < args.length)
+            {
+                tableSize = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--games") && i + 1 < args.length)
+            {
+                games = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--threads") && i + 1 < args.length)
+            {
+                numThreads = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--seed") && i + 1 < args.length)
+            {
+                seed = Long.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--rounds") && i + 1 < args.length)
+            {
+                rounds = Integer.valueOf(args[++i]);
+            }
+            else if (args[i].equals("--permutations"))
+            {
+                seating = Tournament.Seating.PERMUTATIONS;
+            }
+            else
+            {
+                strategies.add(args[i]);
+            }
+        }
+        if (strategies.size() < tableSize)
+        {
+            System.out.println("Usage: UnoTournament [--table N] "
+                    + "[--games N] [--threads N] [--seed S] [--rounds N] "
+                    + "[--permutations] strategyClass...");
+            System.out.println("At least " + tableSize
+                    + " strategies are needed.");
+            System.exit(1);
+        }
+
+        Tournament t = new Tournament(strategies, tableSize);
+        t.setGamesPerMatch(games);
+        t.setSeating(seating);
+        t.setRounds(rounds);
+        if (seed != null)
+        {
+            t.setSeed(seed);
+        }
+        long start = System.nanoTime();
+        List<Tournament.Standing> standings = t.play(numThreads);
+        System.out.print(Tournament.toString(standings));
+        System.out.printf("%d matches in %.1f s.%n", t.getNumMatches(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -1,5 +1,7 @@
 package uno;
 
+import java.util.List;
+
 /**
  * <p>
  * A Card in an Uno deck. Each Card knows its particular type, which is
@@ -14,6 +16,13 @@ package uno;
  * (whether it permits the player to change the color, what effect it has on the
  * game state, etc.)
  * </p>
+ * <p>
+ * Cards are immutable. An Uno deck only holds 54 distinct faces, and each of
+ * them has a shared, canonical Card in a static table: each canonical Card
+ * has a small integer id (see getId() and forId()), and its display string
+ * and forfeit cost are computed once, up front. The engine only ever deals
+ * these shared instances, see valueOf().
+ * </p>
  * 
  * @author Stephen Davies
  * @author Mitch Parry
@@ -29,9 +38,80 @@ public class Card
      */
     public static final boolean PRINT_IN_COLOR = false;
 
-    private UnoPlayer.Color color;
-    private UnoPlayer.Rank rank;
-    private int number;
+    /**
+     * The number of distinct card faces, and so of canonical Cards: ten numbers
+     * and three action cards in each of the four colors, plus the two kinds of
+     * wild cards. Card ids range from 0 to NUM_IDS - 1.
+     */
+    public static final int NUM_IDS = 54;
+
+    /**
+     * The number of ids in each color: numbers 0-9, Skip, Reverse and Draw Two.
+     */
+    private static final int IDS_PER_COLOR = 13;
+
+    /**
+     * The cost of a card that is not a legal Uno card.
+     */
+    private static final int REALLY_TERRIBLE_COST = -10000;
+
+    /**
+     * The canonical Cards, indexed by id.
+     */
+    private static final Card[] CANONICAL = new Card[NUM_IDS];
+
+    /**
+     * The number of possible called colors, including Color.NONE.
+     */
+    private static final int NUM_COLORS = UnoPlayer.Color.values().length;
+
+    /**
+     * The playability table: for each up card id and called color (at index
+     * upId * NUM_COLORS + calledColor.ordinal()), the bitmask of the ids of the
+     * cards that can be played on it (bit id is set if card id can be played).
+     */
+    private static final long[] PLAYABLE = new long[NUM_IDS * NUM_COLORS];
+
+    static
+    {
+        UnoPlayer.Color[] colors = {UnoPlayer.Color.RED,
+            UnoPlayer.Color.YELLOW, UnoPlayer.Color.GREEN,
+            UnoPlayer.Color.BLUE};
+        for (UnoPlayer.Color c : colors)
+        {
+            for (int n = 0; n <= 9; n++)
+            {
+                register(new Card(c, n));
+            }
+            register(new Card(c, UnoPlayer.Rank.SKIP));
+            register(new Card(c, UnoPlayer.Rank.REVERSE));
+            register(new Card(c, UnoPlayer.Rank.DRAW_TWO));
+        }
+        register(new Card(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD));
+        register(new Card(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD_D4));
+        for (Card up : CANONICAL)
+        {
+            for (UnoPlayer.Color called : UnoPlayer.Color.values())
+            {
+                long mask = 0;
+                for (Card c : CANONICAL)
+                {
+                    if (c.matches(up, called))
+                    {
+                        mask |= 1L << c.id;
+                    }
+                }
+                PLAYABLE[up.id * NUM_COLORS + called.ordinal()] = mask;
+            }
+        }
+    }
+
+    private final UnoPlayer.Color color;
+    private final UnoPlayer.Rank rank;
+    private final int number;
+    private final int id;
+    private final int cost;
+    private final String display;
 
     /**
      * Constructor for non-number cards (skips, wilds, etc.).
@@ -43,9 +123,7 @@ public class Card
      */
     public Card(UnoPlayer.Color color, UnoPlayer.Rank rank)
     {
-        this.color = color;
-        this.rank = rank;
-        this.number = -1;
+        this(color, rank, -1);
     }
 
     /**
@@ -58,9 +136,7 @@ public class Card
      */
     public Card(UnoPlayer.Color color, int number)
     {
-        this.color = color;
-        this.rank = UnoPlayer.Rank.NUMBER;
-        this.number = number;
+        this(color, UnoPlayer.Rank.NUMBER, number);
     }
 
     /**
@@ -78,6 +154,115 @@ public class Card
         this.color = color;
         this.rank = rank;
         this.number = number;
+        this.id = idOf(color, rank, number);
+        this.cost = computeForfeitCost();
+        this.display = render();
+    }
+
+    /**
+     * Adds a canonical Card to the static table.
+     * 
+     * @param c
+     *            The card, whose id must be valid
+     */
+    private static void register(Card c)
+    {
+        CANONICAL[c.id] = c;
+    }
+
+    /**
+     * Computes the id of a card face.
+     * 
+     * @param color
+     *            The color of the card
+     * @param rank
+     *            The rank of the card
+     * @param number
+     *            The number of the card
+     * @return the id of the face, or -1 if no such card exists in Uno.
+     */
+    private static int idOf(UnoPlayer.Color color, UnoPlayer.Rank rank,
+            int number)
+    {
+        if (color == null || rank == null)
+        {
+            return -1;
+        }
+        if (color == UnoPlayer.Color.NONE)
+        {
+            if (rank == UnoPlayer.Rank.WILD)
+            {
+                return NUM_IDS - 2;
+            }
+            if (rank == UnoPlayer.Rank.WILD_D4)
+            {
+                return NUM_IDS - 1;
+            }
+            return -1;
+        }
+        int base = color.ordinal() * IDS_PER_COLOR;
+        switch (rank)
+        {
+            case NUMBER:
+                return number >= 0 && number <= 9 ? base + number : -1;
+            case SKIP:
+                return base + 10;
+            case REVERSE:
+                return base + 11;
+            case DRAW_TWO:
+                return base + 12;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Gets the canonical Card of a face.
+     * 
+     * @param color
+     *            The color of the card
+     * @param rank
+     *            The rank of the card
+     * @param number
+     *            The number of the card (-1 for non-number cards)
+     * @return the shared Card instance with these attributes.
+     * @throws IllegalArgumentException
+     *             if there is no such card in Uno.
+     */
+    public static Card valueOf(UnoPlayer.Color color, UnoPlayer.Rank rank,
+            int number)
+    {
+        int id = idOf(color, rank, number);
+        if (id < 0 || (rank != UnoPlayer.Rank.NUMBER && number != -1))
+        {
+            throw new IllegalArgumentException("No such card: " + color
+                    + " " + rank + " " + number);
+        }
+        return CANONICAL[id];
+    }
+
+    /**
+     * Gets the canonical Card of an id.
+     * 
+     * @param id
+     *            A card id, from 0 to NUM_IDS - 1
+     * @return the shared Card instance with this id.
+     */
+    public static Card forId(int id)
+    {
+        return CANONICAL[id];
+    }
+
+    /**
+     * Gets the id.
+     * 
+     * @return the id of this card's face, from 0 to NUM_IDS - 1, which is
+     *         shared by every Card with the same color, rank and number; or
+     *         -1 if this Card was built with attributes no Uno card has.
+     */
+    public int getId()
+    {
+        return id;
     }
 
     /**
@@ -187,6 +372,16 @@ public class Card
      * @return the string representation of the card
      */
     public String toString()
+    {
+        return display;
+    }
+
+    /**
+     * Builds the string representation of this card, once, at construction.
+     * 
+     * @return the string representation of the card
+     */
+    private String render()
     {
         String retval = "";
         if (PRINT_IN_COLOR)
@@ -213,7 +408,20 @@ public class Card
      */
     public int forfeitCost()
     {
-        final int REALLY_TERRIBLE_COST = -10000;
+        if (cost == REALLY_TERRIBLE_COST)
+        {
+            System.out.println("Illegal card!!");
+        }
+        return cost;
+    }
+
+    /**
+     * Computes the cost of this card, once, at construction.
+     * 
+     * @return the forfeit cost of this card.
+     */
+    private int computeForfeitCost()
+    {
         if (rank == UnoPlayer.Rank.SKIP || rank == UnoPlayer.Rank.REVERSE
                 || rank == UnoPlayer.Rank.DRAW_TWO)
         {
@@ -227,7 +435,6 @@ public class Card
         {
             return number;
         }
-        System.out.println("Illegal card!!");
         return REALLY_TERRIBLE_COST;
     }
 
@@ -247,6 +454,84 @@ public class Card
      *         the up card is a wild.
      */
     public boolean canPlayOn(Card c, UnoPlayer.Color calledColor)
+    {
+        if (id >= 0 && c.id >= 0 && calledColor != null)
+        {
+            return (PLAYABLE[c.id * NUM_COLORS + calledColor.ordinal()]
+                    & 1L << id) != 0;
+        }
+        return matches(c, calledColor);
+    }
+
+    /**
+     * Gets the ids of all the cards that can be played on an up card, from
+     * the precomputed playability table.
+     * 
+     * @param upCard
+     *            The up card, which must be a legal Uno card (getId() >= 0)
+     * @param calledColor
+     *            The called color, if the up card is a wild
+     * @return a bitmask whose bit i is set if and only if the card with id i
+     *         can be played on the up card.
+     */
+    public static long playableIds(Card upCard, UnoPlayer.Color calledColor)
+    {
+        return PLAYABLE[upCard.id * NUM_COLORS + calledColor.ordinal()];
+    }
+
+    /**
+     * Determines, in a single pass, which cards of a hand can be played.
+     * 
+     * @param hand
+     *            The hand of cards, of which only the first 64 are considered
+     * @param upCard
+     *            The up card
+     * @param calledColor
+     *            The called color, if the up card is a wild
+     * @return a bitmask whose bit i is set if and only if the card at index i
+     *         of the hand can legally be played.
+     */
+    public static long legalPlays(List<Card> hand, Card upCard,
+            UnoPlayer.Color calledColor)
+    {
+        long playable = 0;
+        if (upCard.id >= 0 && calledColor != null)
+        {
+            playable = playableIds(upCard, calledColor);
+        }
+        long legal = 0;
+        int n = Math.min(hand.size(), Long.SIZE);
+        for (int i = 0; i < n; i++)
+        {
+            Card c = hand.get(i);
+            boolean ok;
+            if (c.id >= 0 && upCard.id >= 0 && calledColor != null)
+            {
+                ok = (playable & 1L << c.id) != 0;
+            }
+            else
+            {
+                ok = c.matches(upCard, calledColor);
+            }
+            if (ok)
+            {
+                legal |= 1L << i;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * The rules behind canPlayOn(), evaluated directly. Used to build the
+     * playability table, and for cards that are not in it.
+     * 
+     * @param c
+     *            The up card
+     * @param calledColor
+     *            The called color
+     * @return True only if this Card can legally be played on the up card.
+     */
+    private boolean matches(Card c, UnoPlayer.Color calledColor)
     {
         if (rank == UnoPlayer.Rank.WILD || rank == UnoPlayer.Rank.WILD_D4
                 || color == c.color || color == calledColor
@@ -339,15 +624,12 @@ public class Card
         }
         catch (EmptyDeckException e)
         {
-            game.print("...deck exhausted, remixing...");
+            game.log.deckRemixed();
             game.deck.remix();
             drawnCard = game.deck.draw();
         }
         game.h[nextPlayer].addCard(drawnCard);
-        // game.println("  Player #" + nextPlayer + " draws " + drawnCard +
-        // ".");
-        game.println("  " + game.h[nextPlayer].getPlayerName() + " draws "
-                + drawnCard + ".");
+        game.log.penaltyDrawn(game.h[nextPlayer], drawnCard);
     }
 
     /**
@@ -0,0 +1,361 @@
+package uno;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A Scoreboard that can be updated by many threads at once, such as the live
+ * standings of a parallel match. Each player's score is spread over several
+ * stripes, and a thread adds its points to the cells of its own stripe, so
+ * threads seldom write to the same cell, or even the same cache line. A
+ * player's score is the sum of its cells.
+ * </p>
+ * <p>
+ * An update may add points to several players at once (see addScores() and
+ * Local.flush()), and a snapshot() must see all of them or none, which
+ * per-player counters such as LongAdder cannot promise. So each stripe starts
+ * with a sequence number, as in a seqlock: a writer makes it odd while it
+ * updates the stripe's cells and even again when done, and snapshot() sums
+ * the cells again if any stripe's number was odd or changed meanwhile.
+ * Writers on different stripes share no lock word; a writer whose stripe is
+ * busy moves on to the next one. Readers take no lock at all.
+ * </p>
+ * <p>
+ * For the busiest callers, a Local accumulates points on a single thread
+ * without any synchronization, and flushes them to this Scoreboard every so
+ * often.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class ConcurrentScoreboard extends Scoreboard
+{
+
+    /**
+     * The number of longs in a cache line, by which the stripes are padded.
+     */
+    private static final int LONGS_PER_LINE = 8;
+
+    private int numPlayers;
+    private int stride;
+    private int numStripes;
+    private int stripeMask;
+    private AtomicLongArray cells;
+
+    /**
+     * Instantiate a new ConcurrentScoreboard, with one stripe per processor.
+     * 
+     * @param playerList
+     *            The names of the players
+     */
+    public ConcurrentScoreboard(String[] playerList)
+    {
+        this(playerList, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Instantiate a new ConcurrentScoreboard.
+     * 
+     * @param playerList
+     *            The names of the players
+     * @param numStripes
+     *            The number of cells per player, rounded up to a power of two
+     */
+    public ConcurrentScoreboard(String[] playerList, int numStripes)
+    {
+        super(playerList);
+        int stripes = 1;
+        while (stripes < numStripes)
+        {
+            stripes <<= 1;
+        }
+        numPlayers = playerList.length;
+        // The sequence number, then one cell per player.
+        stride = (numPlayers + LONGS_PER_LINE) / LONGS_PER_LINE
+                * LONGS_PER_LINE;
+        this.numStripes = stripes;
+        stripeMask = stripes - 1;
+        cells = new AtomicLongArray(stripes * stride);
+    }
+
+    /**
+     * Take a stripe for an update: the calling thread's own one if it is
+     * free, otherwise the next free one.
+     * 
+     * @return the index of the stripe's sequence number, now odd.
+     */
+    private int acquire()
+    {
+        long id = Thread.currentThread().getId();
+        int stripe = (int) (id ^ (id >>> 16));
+        for (int attempt = 0;; attempt++)
+        {
+            int base = ((stripe + attempt) & stripeMask) * stride;
+            long seq = cells.get(base);
+            if ((seq & 1) == 0 && cells.compareAndSet(base, seq, seq + 1))
+            {
+                return base;
+            }
+            if (attempt % numStripes == numStripes - 1)
+            {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Award points to a particular player.
+     * 
+     * @param player
+     *            The zero-based player number who just won a game.
+     * @param points
+     *            The number of points to award.
+     */
+    public void addToScore(int player, int points)
+    {
+        int base = acquire();
+        try
+        {
+            cells.set(base + 1 + player, cells.get(base + 1 + player)
+                    + points);
+        }
+        finally
+        {
+            cells.incrementAndGet(base);
+        }
+    }
+
+    /**
+     * Add all the scores of another Scoreboard to this one, in one update.
+     * 
+     * @param other
+     *            A Scoreboard for the same players, in the same order.
+     */
+    public void addScores(Scoreboard other)
+    {
+        add(other.snapshot());
+    }
+
+    /**
+     * Add points to every player's score, in one update.
+     * 
+     * @param points
+     *            The points of each player, ordered by player number
+     */
+    private void add(int[] points)
+    {
+        int base = acquire();
+        try
+        {
+            for (int i = 0; i < numPlayers; i++)
+            {
+                if (points[i] != 0)
+                {
+                    cells.set(base + 1 + i, cells.get(base + 1 + i)
+                            + points[i]);
+                }
+            }
+        }
+        finally
+        {
+            cells.incrementAndGet(base);
+        }
+    }
+
+    /**
+     * Set every player's score back to zero, in one update.
+     */
+    public void reset()
+    {
+        // Take every stripe, in order, so that no update is half undone.
+        for (int base = 0; base < cells.length(); base += stride)
+        {
+            long seq;
+            while (((seq = cells.get(base)) & 1) != 0
+                    || !cells.compareAndSet(base, seq, seq + 1))
+            {
+                Thread.yield();
+            }
+        }
+        for (int base = 0; base < cells.length(); base += stride)
+        {
+            for (int i = 0; i < numPlayers; i++)
+            {
+                cells.set(base + 1 + i, 0);
+            }
+            cells.incrementAndGet(base);
+        }
+    }
+
+    /**
+     * Obtain the score of a particular player. Points being added meanwhile
+     * may or may not be counted; use snapshot() to compare scores.
+     * 
+     * @param player
+     *            The zero-based player number whose score is desired.
+     * @return the player's score.
+     */
+    public int getScore(int player)
+    {
+        long total = 0;
+        for (int base = 0; base < cells.length(); base += stride)
+        {
+            total += cells.get(base + 1 + player);
+        }
+        return (int) total;
+    }
+
+    /**
+     * Obtain a copy of every player's score, consistent with every update
+     * that has completed and with none that has not.
+     * 
+     * @param dst
+     *            The array to fill, at least getNumPlayers() long
+     * @return dst.
+     */
+    public int[] snapshot(int[] dst)
+    {
+        while (!trySnapshot(dst))
+        {
+            Thread.yield();
+        }
+        return dst;
+    }
+
+    /**
+     * Sum the cells of every player, unless an update gets in the way.
+     * 
+     * @param dst
+     *            The array to fill
+     * @return true if no stripe was being updated while it was summed.
+     */
+    private boolean trySnapshot(int[] dst)
+    {
+        Arrays.fill(dst, 0, numPlayers, 0);
+        for (int base = 0; base < cells.length(); base += stride)
+        {
+            long seq = cells.get(base);
+            if ((seq & 1) != 0)
+            {
+                return false;
+            }
+            for (int i = 0; i < numPlayers; i++)
+            {
+                dst[i] += (int) cells.get(base + 1 + i);
+            }
+            if (cells.get(base) != seq)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a Local accumulating points for this Scoreboard.
+     * 
+     * @param flushEvery
+     *            The number of awards after which the Local flushes its points
+     *            to this Scoreboard by itself
+     * @return a new Local, for use by one thread only.
+     */
+    public Local newLocal(int flushEvery)
+    {
+        return new Local(this, flushEvery);
+    }
+
+    /**
+     * <p>
+     * A Scoreboard for one thread's games, whose points also find their way
+     * to a shared ConcurrentScoreboard. Its own scores are the running totals
+     * of the games recorded on it, like any other Scoreboard; the points not
+     * yet passed on are kept apart, and flushed every flushEvery awards (or on
+     * demand) as one update of the shared Scoreboard.
+     * </p>
+     * <p>
+     * A Local must only be used by one thread at a time, and must be flushed
+     * once its games are done.
+     * </p>
+     */
+    public static class Local extends Scoreboard
+    {
+        private ConcurrentScoreboard shared;
+        private int flushEvery;
+        private int[] pending;
+        private int numPending;
+
+        /**
+         * @param shared
+         *            The Scoreboard the points are flushed to
+         * @param flushEvery
+         *            The number of awards between automatic flushes
+         */
+        Local(ConcurrentScoreboard shared, int flushEvery)
+        {
+            super(shared.getPlayerList());
+            this.shared = shared;
+            this.flushEvery = Math.max(flushEvery, 1);
+            pending = new int[shared.getNumPlayers()];
+        }
+
+        /**
+         * Award points to a particular player.
+         * 
+         * @param player
+         *            The zero-based player number who just won a game.
+         * @param points
+         *            The number of points to award.
+         */
+        public void addToScore(int player, int points)
+        {
+            super.addToScore(player, points);
+            pending[player] += points;
+            if (++numPending >= flushEvery)
+            {
+                flush();
+            }
+        }
+
+        /**
+         * Add all the scores of another Scoreboard to this one.
+         * 
+         * @param other
+         *            A Scoreboard for the same players, in the same order.
+         */
+        public void addScores(Scoreboard other)
+        {
+            int[] otherScores = other.snapshot();
+            for (int i = 0; i < otherScores.length; i++)
+            {
+                addToScore(i, otherScores[i]);
+            }
+        }
+
+        /**
+         * Get the standings the points of this Local are flushed to. They
+         * only count the points flushed so far, by every thread.
+         * 
+         * @return the shared Scoreboard.
+         */
+        public Scoreboard getStandings()
+        {
+            return shared;
+        }
+
+        /**
+         * Pass the points awarded since the last flush on to the shared
+         * Scoreboard.
+         */
+        public void flush()
+        {
+            if (numPending > 0)
+            {
+                shared.add(pending);
+                Arrays.fill(pending, 0);
+                numPending = 0;
+            }
+        }
+    }
+}
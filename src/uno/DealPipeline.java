@@ -0,0 +1,177 @@
+package uno;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A producer stage that shuffles the decks of a match ahead of time, on
+ * threads of its own, so that shuffling overlaps with play. Game number N of
+ * the match is always shuffled from the stream SplitRandom.forGame(seed, N),
+ * exactly as Game.reset() would shuffle it, so a pipelined match gives the same
+ * results as one that is not. Workers take() the shuffled decks in whatever
+ * order they come, play them with Game.reset(Deal), and recycle() them.
+ * </p>
+ * <p>
+ * Deals travel through a bounded queue, and come back through a second one
+ * to be refilled, so the pipeline allocates nothing once it is running, and
+ * producers never run more than the capacity of the queue ahead of the
+ * workers. Only the shuffle is done ahead: dealing the hands is a few array
+ * reads and stays with the worker, along with the random choices that follow
+ * it (first up card, starting player), which are made from the game's stream
+ * handed over with the deck.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+class DealPipeline
+{
+
+    /**
+     * A shuffled deck, ready to be played as game number gameIndex.
+     */
+    static class Deal
+    {
+        private long gameIndex;
+        private byte[] cards;
+        private long randState;
+
+        /**
+         * @return the number of the game within the match.
+         */
+        long getGameIndex()
+        {
+            return gameIndex;
+        }
+
+        /**
+         * @return the ids of the cards of the shuffled deck.
+         */
+        byte[] getCards()
+        {
+            return cards;
+        }
+
+        /**
+         * @return the state of the game's SplitRandom once the deck has been
+         *         shuffled.
+         */
+        long getRandState()
+        {
+            return randState;
+        }
+    }
+
+    private long seed;
+    private int numGames;
+    private BlockingQueue<Deal> ready;
+    private BlockingQueue<Deal> free;
+    private AtomicInteger nextToShuffle = new AtomicInteger();
+    private AtomicInteger nextToTake = new AtomicInteger();
+    private Thread[] producers;
+
+    /**
+     * Instantiate and start a pipeline.
+     * 
+     * @param seed
+     *            The master seed of the match
+     * @param numGames
+     *            The number of games of the match
+     * @param numProducers
+     *            The number of threads shuffling decks
+     * @param capacity
+     *            The number of decks that can be waiting in the pipeline
+     */
+    DealPipeline(long seed, int numGames, int numProducers, int capacity)
+    {
+        this.seed = seed;
+        this.numGames = numGames;
+        ready = new ArrayBlockingQueue<Deal>(capacity);
+        free = new ArrayBlockingQueue<Deal>(capacity);
+        for (int i = 0; i < capacity; i++)
+        {
+            free.add(new Deal());
+        }
+        producers = new Thread[numProducers];
+        for (int i = 0; i < numProducers; i++)
+        {
+            producers[i] = new Thread(new Producer(), "deal-producer-" + i);
+            producers[i].setDaemon(true);
+            producers[i].start();
+        }
+    }
+
+    /**
+     * Take the next shuffled deck.
+     * 
+     * @return a deal, or null once every game of the match has been taken.
+     * @throws InterruptedException
+     *             if interrupted while waiting for a deal.
+     */
+    Deal take() throws InterruptedException
+    {
+        if (nextToTake.getAndIncrement() >= numGames)
+        {
+            return null;
+        }
+        return ready.take();
+    }
+
+    /**
+     * Hand a deal that has been played back to the producers.
+     * 
+     * @param deal
+     *            The deal, which must not be used any more
+     */
+    void recycle(Deal deal)
+    {
+        free.add(deal);
+    }
+
+    /**
+     * Stop the producers.
+     */
+    void close()
+    {
+        for (Thread producer : producers)
+        {
+            producer.interrupt();
+        }
+    }
+
+    /**
+     * A producer thread: claims game numbers in turn, and shuffles their decks.
+     */
+    private class Producer implements Runnable
+    {
+        /**
+         * Shuffle decks until every game of the match has one.
+         */
+        public void run()
+        {
+            SplitRandom rand = new SplitRandom(0);
+            Deck deck = new Deck(rand);
+            try
+            {
+                int i;
+                while ((i = nextToShuffle.getAndIncrement()) < numGames)
+                {
+                    Deal deal = free.take();
+                    rand.setSeed(SplitRandom.gameSeed(seed, i));
+                    deck.reset();
+                    deal.gameIndex = i;
+                    deal.cards = deck.copyCards(deal.cards);
+                    deal.randState = rand.getState();
+                    ready.put(deal);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // The match is over.
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package uno;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * DecisionLatencies times the decisions of the strategies of a match: every
+ * call to UnoPlayer.play() and UnoPlayer.callColor(), made through Hand, is
+ * timed with System.nanoTime() into a LatencyHistogram of its seat, and the
+ * report gives the 50th, 99th and 99.9th percentiles and the maximum of each
+ * strategy, all the seats it plays together.
+ * </p>
+ * <p>
+ * In sampling mode, only one decision in sampleEvery (a power of two) is
+ * timed; the others cost a counter increment and a test. A DecisionLatencies
+ * is not thread-safe: each thread of a parallel match keeps its own, and they
+ * are merge()d.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class DecisionLatencies
+{
+
+    private String[] strategies;
+    private Seat[] seats;
+    private int sampleEvery;
+
+    /**
+     * Instantiate empty latencies.
+     * 
+     * @param strategies
+     *            The name of the strategy of each seat
+     * @param sampleEvery
+     *            Time one decision in this many, rounded up to a power of two;
+     *            1 to time every decision
+     */
+    public DecisionLatencies(String[] strategies, int sampleEvery)
+    {
+        this.strategies = strategies;
+        this.sampleEvery = Integer.highestOneBit(Math.max(sampleEvery, 1));
+        if (this.sampleEvery < sampleEvery)
+        {
+            this.sampleEvery <<= 1;
+        }
+        seats = new Seat[strategies.length];
+        for (int i = 0; i < seats.length; i++)
+        {
+            seats[i] = new Seat(this.sampleEvery - 1);
+        }
+    }
+
+    /**
+     * @param seat
+     *            The zero-based number of a seat
+     * @return the timer of the hand played from that seat.
+     */
+    Seat getSeat(int seat)
+    {
+        return seats[seat];
+    }
+
+    /**
+     * Add the latencies recorded by another DecisionLatencies, for the same
+     * seats, to this one.
+     * 
+     * @param other
+     *            The other latencies
+     */
+    public void merge(DecisionLatencies other)
+    {
+        for (int i = 0; i < seats.length; i++)
+        {
+            seats[i].playTimes.merge(other.seats[i].playTimes);
+            seats[i].callTimes.merge(other.seats[i].callTimes);
+        }
+    }
+
+    /**
+     * @param strategy
+     *            The name of a strategy
+     * @return the play() latencies of the strategy, all its seats together.
+     */
+    public LatencyHistogram getPlayTimes(String strategy)
+    {
+        return byStrategy().get(strategy)[0];
+    }
+
+    /**
+     * @param strategy
+     *            The name of a strategy
+     * @return the callColor() latencies of the strategy, all its seats
+     *         together.
+     */
+    public LatencyHistogram getCallTimes(String strategy)
+    {
+        return byStrategy().get(strategy)[1];
+    }
+
+    /**
+     * Merges the histograms of the seats of each strategy.
+     * 
+     * @return the play() and callColor() histograms of each strategy, in
+     *         order of first seat.
+     */
+    private Map<String, LatencyHistogram[]> byStrategy()
+    {
+        Map<String, LatencyHistogram[]> merged =
+                new LinkedHashMap<String, LatencyHistogram[]>();
+        for (int i = 0; i < seats.length; i++)
+        {
+            LatencyHistogram[] times = merged.get(strategies[i]);
+            if (times == null)
+            {
+                times = new LatencyHistogram[] { new LatencyHistogram(),
+                        new LatencyHistogram() };
+                merged.put(strategies[i], times);
+            }
+            times[0].merge(seats[i].playTimes);
+            times[1].merge(seats[i].callTimes);
+        }
+        return merged;
+    }
+
+    /**
+     * Render the latencies of each strategy as a report, in microseconds.
+     * 
+     * @return the report text
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Decision latencies (us), 1 in %d timed:%n",
+                sampleEvery));
+        sb.append(String.format("%-20s %-9s %10s %9s %9s %9s %9s%n",
+                "Strategy", "Decision", "Count", "p50", "p99", "p99.9",
+                "max"));
+        for (Map.Entry<String, LatencyHistogram[]> e : byStrategy()
+                .entrySet())
+        {
+            appendRow(sb, e.getKey(), "play", e.getValue()[0]);
+            appendRow(sb, e.getKey(), "callColor", e.getValue()[1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a line of the report.
+     * 
+     * @param sb
+     *            The report
+     * @param strategy
+     *            The name of the strategy
+     * @param decision
+     *            The name of the decision
+     * @param times
+     *            The latencies of the decision
+     */
+    private static void appendRow(StringBuilder sb, String strategy,
+            String decision, LatencyHistogram times)
+    {
+        sb.append(String.format("%-20s %-9s %10d %9.2f %9.2f %9.2f %9.2f%n",
+                strategy, decision, times.getCount(),
+                times.getPercentile(50) / 1e3, times.getPercentile(99) / 1e3,
+                times.getPercentile(99.9) / 1e3, times.getMax() / 1e3));
+    }
+
+    /**
+     * The timer of the hand played from one seat.
+     */
+    static class Seat
+    {
+        private int sampleMask;
+        private int decisions;
+        private LatencyHistogram playTimes = new LatencyHistogram();
+        private LatencyHistogram callTimes = new LatencyHistogram();
+
+        /**
+         * @param sampleMask
+         *            One less than the power of two of the sampling interval
+         */
+        Seat(int sampleMask)
+        {
+            this.sampleMask = sampleMask;
+        }
+
+        /**
+         * Counts a decision.
+         * 
+         * @return true if the decision is to be timed.
+         */
+        boolean sample()
+        {
+            return (decisions++ & sampleMask) == 0;
+        }
+
+        /**
+         * @param nanos
+         *            The duration of a timed play() decision
+         */
+        void playTimed(long nanos)
+        {
+            playTimes.record(nanos);
+        }
+
+        /**
+         * @param nanos
+         *            The duration of a timed callColor() decision
+         */
+        void callTimed(long nanos)
+        {
+            callTimes.record(nanos);
+        }
+    }
+}
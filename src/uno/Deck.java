@@ -1,6 +1,6 @@
 package uno;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -14,6 +14,17 @@ import java.util.Random;
  * The values of static member variables can be changed to adjust the content of
  * the deck.
  * </p>
+ * <p>
+ * The cards are stored by id (see Card.getId()) in a single array: the draw
+ * pile occupies its first slots, and the discard pile the slots right after
+ * it. The cards held by players are in neither. A remix thus only moves the
+ * boundary between the two piles. A Deck can shuffle in one of two modes. An
+ * eager Deck shuffles its whole draw pile up front (and on every remix) and
+ * draws from the top. A lazy Deck never shuffles; instead, draw() picks a
+ * random card among those left in the draw pile, so that the cost of the
+ * shuffle is only paid for the cards actually drawn. Both deal every order of
+ * the cards with the same probability.
+ * </p>
  * 
  * @author Stephen Davies
  * @author Mitch Parry
@@ -48,20 +59,169 @@ public class Deck
      */
     public static final int NUMBER_OF_WILD_D4_CARDS = 4;
 
-    private ArrayList<Card> cards = new ArrayList<Card>();
-    private ArrayList<Card> discardedCards = new ArrayList<Card>();
+    /**
+     * The number of cards in a full deck.
+     */
+    private static final int DECK_SIZE = 4 * (9 * NUMBER_OF_DUP_REGULAR_CARDS
+            + NUMBER_OF_DUP_ZERO_CARDS + 3 * NUMBER_OF_DUP_SPECIAL_CARDS)
+            + NUMBER_OF_WILD_CARDS + NUMBER_OF_WILD_D4_CARDS;
+
+    private byte[] slots = new byte[DECK_SIZE];
+    private int numCards;
+    private int numDiscarded;
     private Random rand;
+    private boolean lazy;
+    private boolean topChosen;
+    private int numDrawn;
+    private int numRemixes;
 
     /**
      * Constructor for a new, full, shuffled Deck.
      */
     public Deck()
     {
-        rand = new Random();
+        this(new Random());
+    }
+
+    /**
+     * Constructor for a new, full Deck shuffled with the given random number
+     * generator. The same generator is used by every later shuffle, remix and
+     * makeFirstCardNonWild, so a Deck built from a seeded generator always
+     * produces the same sequence of cards.
+     * 
+     * @param rand
+     *            The random number generator this Deck draws on. It should not
+     *            be shared with another thread.
+     */
+    public Deck(Random rand)
+    {
+        this(rand, false);
+    }
+
+    /**
+     * Constructor for a new, full Deck using the given random number generator
+     * and shuffling mode.
+     * 
+     * @param rand
+     *            The random number generator this Deck draws on. It should not
+     *            be shared with another thread.
+     * @param lazy
+     *            If true, cards are picked at random as they are drawn rather
+     *            than shuffled up front.
+     */
+    public Deck(Random rand, boolean lazy)
+    {
+        this.rand = rand;
+        this.lazy = lazy;
         fillDeck();
         shuffle();
     }
 
+    /**
+     * @return the random number generator this Deck draws on.
+     */
+    public Random getRandom()
+    {
+        return rand;
+    }
+
+    /**
+     * Put every card back into this Deck (both those drawn and those
+     * discarded) and shuffle it, as for a new game. The Deck keeps its
+     * storage, and its random number generator.
+     */
+    public void reset()
+    {
+        numCards = 0;
+        numDiscarded = 0;
+        numDrawn = 0;
+        numRemixes = 0;
+        fillDeck();
+        shuffle();
+    }
+
+    /**
+     * Copy the cards of this Deck, which must have no discarded cards (as
+     * right after a reset()), so that they can be load()ed into another one.
+     * 
+     * @param dst
+     *            An array to reuse, or null
+     * @return the ids of the cards of the draw pile, from bottom to top.
+     */
+    byte[] copyCards(byte[] dst)
+    {
+        if (dst == null || dst.length != numCards)
+        {
+            dst = new byte[numCards];
+        }
+        System.arraycopy(slots, 0, dst, 0, numCards);
+        return dst;
+    }
+
+    /**
+     * Put every card back into this Deck, in the given order, as for a new
+     * game, with no discarded cards.
+     * 
+     * @param cards
+     *            The ids of the cards of the draw pile, from bottom to top, as
+     *            returned by copyCards()
+     */
+    void load(byte[] cards)
+    {
+        if (slots.length < cards.length)
+        {
+            slots = new byte[cards.length];
+        }
+        System.arraycopy(cards, 0, slots, 0, cards.length);
+        numCards = cards.length;
+        numDiscarded = 0;
+        numDrawn = 0;
+        numRemixes = 0;
+        topChosen = false;
+    }
+
+    /**
+     * Adds the canonical number card of a color to the deck.
+     * 
+     * @param color
+     *            The color of the card
+     * @param number
+     *            The number of the card
+     */
+    private void add(UnoPlayer.Color color, int number)
+    {
+        add(Card.valueOf(color, UnoPlayer.Rank.NUMBER, number));
+    }
+
+    /**
+     * Adds the canonical non-number card of a color and rank to the deck.
+     * 
+     * @param color
+     *            The color of the card
+     * @param rank
+     *            The rank of the card
+     */
+    private void add(UnoPlayer.Color color, UnoPlayer.Rank rank)
+    {
+        add(Card.valueOf(color, rank, -1));
+    }
+
+    /**
+     * Adds a card to the top of the draw pile, which must be directly followed
+     * by an empty discard pile.
+     * 
+     * @param c
+     *            The card
+     */
+    private void add(Card c)
+    {
+        if (numCards == slots.length)
+        {
+            slots = Arrays.copyOf(slots, 2 * slots.length);
+        }
+        slots[numCards++] = (byte) c.getId();
+    }
+
     /**
      * Fills the regular cards in the deck.
      */
@@ -71,10 +231,10 @@ public class Deck
         {
             for (int j = 0; j < NUMBER_OF_DUP_REGULAR_CARDS; j++)
             {
-                cards.add(new Card(UnoPlayer.Color.RED, i));
-                cards.add(new Card(UnoPlayer.Color.YELLOW, i));
-                cards.add(new Card(UnoPlayer.Color.BLUE, i));
-                cards.add(new Card(UnoPlayer.Color.GREEN, i));
+                add(UnoPlayer.Color.RED, i);
+                add(UnoPlayer.Color.YELLOW, i);
+                add(UnoPlayer.Color.BLUE, i);
+                add(UnoPlayer.Color.GREEN, i);
             }
         }
     }
@@ -87,10 +247,10 @@ public class Deck
         // There are fewer "0" cards than other numbers.
         for (int j = 0; j < NUMBER_OF_DUP_ZERO_CARDS; j++)
         {
-            cards.add(new Card(UnoPlayer.Color.RED, 0));
-            cards.add(new Card(UnoPlayer.Color.YELLOW, 0));
-            cards.add(new Card(UnoPlayer.Color.BLUE, 0));
-            cards.add(new Card(UnoPlayer.Color.GREEN, 0));
+            add(UnoPlayer.Color.RED, 0);
+            add(UnoPlayer.Color.YELLOW, 0);
+            add(UnoPlayer.Color.BLUE, 0);
+            add(UnoPlayer.Color.GREEN, 0);
         }
     }
 
@@ -101,19 +261,18 @@ public class Deck
     {
         for (int j = 0; j < NUMBER_OF_DUP_SPECIAL_CARDS; j++)
         {
-            cards.add(new Card(UnoPlayer.Color.RED, UnoPlayer.Rank.SKIP));
-            cards.add(new Card(UnoPlayer.Color.YELLOW, UnoPlayer.Rank.SKIP));
-            cards.add(new Card(UnoPlayer.Color.GREEN, UnoPlayer.Rank.SKIP));
-            cards.add(new Card(UnoPlayer.Color.BLUE, UnoPlayer.Rank.SKIP));
-            cards.add(new Card(UnoPlayer.Color.RED, UnoPlayer.Rank.REVERSE));
-            cards.add(new Card(UnoPlayer.Color.YELLOW, UnoPlayer.Rank.REVERSE));
-            cards.add(new Card(UnoPlayer.Color.GREEN, UnoPlayer.Rank.REVERSE));
-            cards.add(new Card(UnoPlayer.Color.BLUE, UnoPlayer.Rank.REVERSE));
-            cards.add(new Card(UnoPlayer.Color.RED, UnoPlayer.Rank.DRAW_TWO));
-            cards.add(new Card(UnoPlayer.Color.YELLOW,
-                    UnoPlayer.Rank.DRAW_TWO));
-            cards.add(new Card(UnoPlayer.Color.GREEN, UnoPlayer.Rank.DRAW_TWO));
-            cards.add(new Card(UnoPlayer.Color.BLUE, UnoPlayer.Rank.DRAW_TWO));
+            add(UnoPlayer.Color.RED, UnoPlayer.Rank.SKIP);
+            add(UnoPlayer.Color.YELLOW, UnoPlayer.Rank.SKIP);
+            add(UnoPlayer.Color.GREEN, UnoPlayer.Rank.SKIP);
+            add(UnoPlayer.Color.BLUE, UnoPlayer.Rank.SKIP);
+            add(UnoPlayer.Color.RED, UnoPlayer.Rank.REVERSE);
+            add(UnoPlayer.Color.YELLOW, UnoPlayer.Rank.REVERSE);
+            add(UnoPlayer.Color.GREEN, UnoPlayer.Rank.REVERSE);
+            add(UnoPlayer.Color.BLUE, UnoPlayer.Rank.REVERSE);
+            add(UnoPlayer.Color.RED, UnoPlayer.Rank.DRAW_TWO);
+            add(UnoPlayer.Color.YELLOW, UnoPlayer.Rank.DRAW_TWO);
+            add(UnoPlayer.Color.GREEN, UnoPlayer.Rank.DRAW_TWO);
+            add(UnoPlayer.Color.BLUE, UnoPlayer.Rank.DRAW_TWO);
         }
     }
 
@@ -124,16 +283,17 @@ public class Deck
     {
         for (int i = 0; i < NUMBER_OF_WILD_CARDS; i++)
         {
-            cards.add(new Card(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD));
+            add(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD);
         }
         for (int i = 0; i < NUMBER_OF_WILD_D4_CARDS; i++)
         {
-            cards.add(new Card(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD_D4));
+            add(UnoPlayer.Color.NONE, UnoPlayer.Rank.WILD_D4);
         }
     }
 
     /**
-     * Fills the deck.
+     * Fills the deck. Every Card in a Deck is one of the shared, canonical Card
+     * instances, so no Card is allocated.
      */
     private void fillDeck()
     {
@@ -146,16 +306,19 @@ public class Deck
     /**
      * When performed on a Deck that is <i>at least partially filled,</i>,
      * shuffles its cards randomly. Note that this does not fill the Deck, nor
-     * does it combine any outstanding cards into the Deck.
+     * does it combine any outstanding cards into the Deck. A lazy Deck has
+     * nothing to do here, as it picks its cards at random when they are drawn.
      */
     public void shuffle()
     {
-        for (int i = cards.size() - 1; i > 0; i--)
+        topChosen = false;
+        if (lazy)
+        {
+            return;
+        }
+        for (int i = numCards - 1; i > 0; i--)
         {
-            int x = rand.nextInt(i + 1);
-            Card temp = cards.get(i);
-            cards.set(i, cards.get(x));
-            cards.set(x, temp);
+            swap(i, rand.nextInt(i + 1));
         }
     }
 
@@ -164,16 +327,34 @@ public class Deck
      */
     public void makeFirstCardNonWild()
     {
-        int lastIndex = cards.size() - 1;
-        while (cards.get(lastIndex).followedByCall())
+        int lastIndex = numCards - 1;
+        if (lazy)
         {
-            int x = rand.nextInt(lastIndex);
-            Card temp = cards.get(lastIndex);
-            cards.set(lastIndex, cards.get(x));
-            cards.set(x, temp);
+            // Pick the next card to be drawn now, among the non-wilds.
+            swap(lastIndex, rand.nextInt(numCards));
+            topChosen = true;
+        }
+        while (Card.forId(slots[lastIndex]).followedByCall())
+        {
+            swap(lastIndex, rand.nextInt(lastIndex));
         }
     }
 
+    /**
+     * Swaps two cards of the draw pile.
+     * 
+     * @param i
+     *            The index of one card
+     * @param j
+     *            The index of the other card
+     */
+    private void swap(int i, int j)
+    {
+        byte temp = slots[i];
+        slots[i] = slots[j];
+        slots[j] = temp;
+    }
+
     /**
      * Determines if the deck is empty.
      * 
@@ -181,11 +362,12 @@ public class Deck
      */
     public boolean isEmpty()
     {
-        return cards.size() == 0;
+        return numCards == 0;
     }
 
     /**
-     * Draws the top card from the deck.
+     * Draws the top card from the deck. For a lazy Deck, the "top" card is
+     * picked at random among the cards of the draw pile.
      * 
      * @return the top card of the Deck, and removes it.
      * 
@@ -195,11 +377,22 @@ public class Deck
      */
     public Card draw() throws EmptyDeckException
     {
-        if (cards.size() == 0)
+        if (numCards == 0)
         {
             throw new EmptyDeckException();
         }
-        return cards.remove(cards.size() - 1);
+        int top = numCards - 1;
+        if (lazy && !topChosen)
+        {
+            swap(top, rand.nextInt(numCards));
+        }
+        topChosen = false;
+        Card c = Card.forId(slots[top]);
+        // Keep the discard pile right after the draw pile.
+        slots[top] = slots[top + numDiscarded];
+        numCards--;
+        numDrawn++;
+        return c;
     }
 
     /**
@@ -211,7 +404,13 @@ public class Deck
      */
     public void discard(Card c)
     {
-        discardedCards.add(c);
+        int end = numCards + numDiscarded;
+        if (end == slots.length)
+        {
+            slots = Arrays.copyOf(slots, 2 * slots.length);
+        }
+        slots[end] = (byte) c.getId();
+        numDiscarded++;
     }
 
     /**
@@ -220,20 +419,37 @@ public class Deck
      */
     public void remix()
     {
-        cards.addAll(discardedCards);
-        discardedCards.clear();
+        numCards += numDiscarded;
+        numDiscarded = 0;
+        numRemixes++;
         shuffle();
     }
 
     /**
-     * Returns the list of discarded Cards since the last remix.
+     * Returns the number of discarded Cards since the last remix.
      * 
-     * @return ArrayList<Card> A list of all Cards that have been discarded (via
-     *         discard()) since the last Deck remix.
+     * @return the number of Cards that have been discarded (via discard())
+     *         since the last Deck remix.
+     */
+    int getNumDiscardedCards()
+    {
+        return numDiscarded;
+    }
+
+    /**
+     * @return the number of cards drawn since this Deck was last filled.
+     */
+    int getNumDrawn()
+    {
+        return numDrawn;
+    }
+
+    /**
+     * @return the number of remixes since this Deck was last filled.
      */
-    ArrayList<Card> getDiscardedCards()
+    int getNumRemixes()
     {
-        return discardedCards;
+        return numRemixes;
     }
 
     /**
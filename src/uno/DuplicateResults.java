@@ -0,0 +1,268 @@
+package uno;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A DuplicateResults compares the players of a duplicate match (see
+ * Match.setDuplicate()), in which every deal is played once per rotation of
+ * the seats, so that every player holds every seat's cards. Once all the
+ * games of a deal are in, each player's points over them are compared with
+ * the average of all the players' over the same games: the luck of the deal
+ * is the same for everyone, and cancels out. The mean of these advantages
+ * over the deals estimates how much better than the field a player does, with
+ * far less variance than the raw points of the games.
+ * </p>
+ * <p>
+ * The games of a deal may be played, and report()ed, on different threads and
+ * in any order. Games of a deal left incomplete (at the end of a match cut
+ * short) are not compared.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class DuplicateResults
+{
+    private String[] playerNames;
+    private Map<Long, Deal> pending = new HashMap<Long, Deal>();
+    private MatchStatistics.RunningStat[] advantage;
+    private long[] points;
+    private long[] wins;
+    private long[] forfeits;
+    private long numDeals;
+
+    /**
+     * Instantiate empty results.
+     * 
+     * @param playerNames
+     *            The names of the players, in seating order
+     */
+    public DuplicateResults(String[] playerNames)
+    {
+        this.playerNames = playerNames;
+        advantage = new MatchStatistics.RunningStat[playerNames.length];
+        for (int i = 0; i < advantage.length; i++)
+        {
+            advantage[i] = new MatchStatistics.RunningStat();
+        }
+        points = new long[playerNames.length];
+        wins = new long[playerNames.length];
+        forfeits = new long[playerNames.length];
+    }
+
+    /**
+     * Record the outcome of a game.
+     * 
+     * @param gameIndex
+     *            The number of the game; games numPlayers * d to
+     *            numPlayers * (d + 1) - 1 are the rotations of deal d
+     * @param winner
+     *            The zero-based number of the winner, or -1 for a draw
+     * @param gamePoints
+     *            The points of the win
+     */
+    public synchronized void report(long gameIndex, int winner,
+            int gamePoints)
+    {
+        Deal d = getDeal(gameIndex);
+        if (winner >= 0)
+        {
+            d.points[winner] += gamePoints;
+            d.wins[winner]++;
+        }
+        gameEnded(gameIndex, d);
+    }
+
+    /**
+     * Record a game that a player forfeited (see TimeBudget), which the
+     * others share.
+     * 
+     * @param gameIndex
+     *            The number of the game, as for report()
+     * @param forfeiter
+     *            The zero-based number of the player who forfeited
+     * @param sharePoints
+     *            The points each other player collected
+     */
+    public synchronized void reportForfeit(long gameIndex, int forfeiter,
+            int sharePoints)
+    {
+        Deal d = getDeal(gameIndex);
+        for (int i = 0; i < playerNames.length; i++)
+        {
+            if (i != forfeiter)
+            {
+                d.points[i] += sharePoints;
+            }
+        }
+        d.forfeits[forfeiter]++;
+        gameEnded(gameIndex, d);
+    }
+
+    /**
+     * Gets the games of a deal reported so far.
+     * 
+     * @param gameIndex
+     *            The number of a game of the deal
+     * @return the deal, created if this is its first game.
+     */
+    private Deal getDeal(long gameIndex)
+    {
+        Long deal = gameIndex / playerNames.length;
+        Deal d = pending.get(deal);
+        if (d == null)
+        {
+            d = new Deal(playerNames.length);
+            pending.put(deal, d);
+        }
+        return d;
+    }
+
+    /**
+     * Counts a game of a deal, and compares the players over the deal once
+     * all its games are in.
+     * 
+     * @param gameIndex
+     *            The number of the game
+     * @param d
+     *            Its deal
+     */
+    private void gameEnded(long gameIndex, Deal d)
+    {
+        int numPlayers = playerNames.length;
+        if (++d.numGames < numPlayers)
+        {
+            return;
+        }
+        pending.remove(gameIndex / numPlayers);
+        long total = 0;
+        for (int i = 0; i < numPlayers; i++)
+        {
+            total += d.points[i];
+        }
+        double mean = (double) total / numPlayers;
+        for (int i = 0; i < numPlayers; i++)
+        {
+            advantage[i].add(d.points[i] - mean);
+            points[i] += d.points[i];
+            wins[i] += d.wins[i];
+            forfeits[i] += d.forfeits[i];
+        }
+        numDeals++;
+    }
+
+    /**
+     * @return the number of deals whose every rotation has been played.
+     */
+    public synchronized long getNumDeals()
+    {
+        return numDeals;
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of the player
+     * @return the player's points over the complete deals.
+     */
+    public synchronized long getPoints(int player)
+    {
+        return points[player];
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of the player
+     * @return the games the player won over the complete deals.
+     */
+    public synchronized long getWins(int player)
+    {
+        return wins[player];
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of the player
+     * @return the games the player forfeited over the complete deals.
+     */
+    public synchronized long getForfeits(int player)
+    {
+        return forfeits[player];
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of the player
+     * @return the mean, per deal, of the player's points less the average
+     *         points of the players over the same games.
+     */
+    public synchronized double getAdvantage(int player)
+    {
+        return advantage[player].getMean();
+    }
+
+    /**
+     * Get a confidence interval on the advantage of a player.
+     * 
+     * @param player
+     *            The zero-based number of the player
+     * @param z
+     *            The z value of the interval, e.g. MatchStatistics.Z_95
+     * @return the lower and upper bounds of the interval.
+     */
+    public synchronized double[] getAdvantageInterval(int player, double z)
+    {
+        MatchStatistics.RunningStat a = advantage[player];
+        double half = a.getCount() < 2 ? Double.POSITIVE_INFINITY : z
+                * a.getStandardDeviation() / Math.sqrt(a.getCount());
+        return new double[] { a.getMean() - half, a.getMean() + half };
+    }
+
+    /**
+     * Render the results as a report.
+     * 
+     * @return the report text
+     */
+    public synchronized String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Duplicate deals: %d (%d games each)%n",
+                numDeals, playerNames.length));
+        sb.append(String.format("%-10s  %8s  %8s  %10s  %s%n", "Player",
+                "Wins", "Forfeits", "Pts/deal",
+                "Advantage per deal (95% CI)"));
+        for (int i = 0; i < playerNames.length; i++)
+        {
+            double[] ci = getAdvantageInterval(i, MatchStatistics.Z_95);
+            sb.append(String.format("%-10s  %8d  %8d  %10.2f  "
+                    + "%+8.2f [%+.2f,%+.2f]%n", playerNames[i], wins[i],
+                    forfeits[i], numDeals == 0 ? 0
+                    : (double) points[i] / numDeals, getAdvantage(i), ci[0],
+                    ci[1]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The games of a deal reported so far.
+     */
+    private static class Deal
+    {
+        private int numGames;
+        private long[] points;
+        private int[] wins;
+        private int[] forfeits;
+
+        /**
+         * @param numPlayers
+         *            The number of players
+         */
+        Deal(int numPlayers)
+        {
+            points = new long[numPlayers];
+            wins = new int[numPlayers];
+            forfeits = new int[numPlayers];
+        }
+    }
+}
@@ -3,6 +3,8 @@ package uno;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * <p>
@@ -62,10 +64,20 @@ public class Game
     int currPlayer;
     UnoPlayer.Color calledColor;
     Scoreboard scoreboard;
-    ArrayList<Turn> gameSummary;
+    TurnLog gameSummary;
     UnoPlayer.Color mostRecentColorCalled[];
     Card firstCard;
-    boolean printVerbose;
+    GameLog log;
+    Random rand;
+    PlayerFactory[] players;
+    GameState state;
+    MatchStatistics stats;
+    DecisionLatencies latencies;
+    TimeBudget budget;
+    int pointsWon;
+    int winner;
+    int forfeiter;
+    int rotation;
 
     /**
      * Main constructor to instantiate a Game of Uno. Provided must be two
@@ -85,39 +97,230 @@ public class Game
      */
     public Game(Scoreboard scoreboard, ArrayList<String> playerClassList,
             boolean printVerbose)
+    {
+        this(scoreboard, playerClassList, printVerbose, new Random());
+    }
+
+    /**
+     * Instantiate a Game of Uno whose every random choice (the shuffles of the
+     * deck and the choice of the starting player) is drawn from the given
+     * generator. Two Games built from generators with the same seed are dealt
+     * the same way.
+     * 
+     * @param scoreboard
+     *            A fully-populated Scoreboard object that contains the names of
+     *            the contestants, in order.
+     * @param playerClassList
+     *            An array of Strings, each of which is a fully-qualified
+     *            package/class name of a class that implements the UnoPlayer
+     *            interface.
+     * @param printVerbose
+     *            Determines whether or not to print each play.
+     * @param rand
+     *            The random number generator of this game, see
+     *            SplitRandom.forGame(). It should not be shared with another
+     *            thread.
+     */
+    public Game(Scoreboard scoreboard, ArrayList<String> playerClassList,
+            boolean printVerbose, Random rand)
+    {
+        this(scoreboard, playerClassList, printVerbose ? new PrintGameLog(
+                System.out) : NullGameLog.INSTANCE, rand);
+    }
+
+    /**
+     * Instantiate a Game of Uno reporting its events to the given log.
+     * 
+     * @param scoreboard
+     *            A fully-populated Scoreboard object that contains the names of
+     *            the contestants, in order.
+     * @param playerClassList
+     *            An array of Strings, each of which is a fully-qualified
+     *            package/class name of a class that implements the UnoPlayer
+     *            interface.
+     * @param log
+     *            Where the events of the game are reported;
+     *            NullGameLog.INSTANCE to report nothing.
+     * @param rand
+     *            The random number generator of this game, see
+     *            SplitRandom.forGame(). It should not be shared with another
+     *            thread.
+     */
+    public Game(Scoreboard scoreboard, ArrayList<String> playerClassList,
+            GameLog log, Random rand)
+    {
+        this(scoreboard, PlayerFactory.forClassNames(playerClassList,
+                PlayerFactory.Policy.PER_GAME), log, rand);
+    }
+
+    /**
+     * Instantiate a Game of Uno whose players are obtained from factories that
+     * were resolved beforehand, typically once for a whole match.
+     * 
+     * @param scoreboard
+     *            A fully-populated Scoreboard object that contains the names of
+     *            the contestants, in order.
+     * @param players
+     *            The factories of the contestants' UnoPlayer strategies, in the
+     *            same order.
+     * @param log
+     *            Where the events of the game are reported;
+     *            NullGameLog.INSTANCE to report nothing.
+     * @param rand
+     *            The random number generator of this game, see
+     *            SplitRandom.forGame(). It should not be shared with another
+     *            thread.
+     */
+    public Game(Scoreboard scoreboard, PlayerFactory[] players, GameLog log,
+            Random rand)
+    {
+        this(scoreboard, players, log, new Deck(rand));
+    }
+
+    /**
+     * Instantiate a Game of Uno played with the given Deck. Every random
+     * choice of the game is drawn from the Deck's random number generator.
+     * 
+     * @param scoreboard
+     *            A fully-populated Scoreboard object that contains the names of
+     *            the contestants, in order.
+     * @param players
+     *            The factories of the contestants' UnoPlayer strategies, in the
+     *            same order.
+     * @param log
+     *            Where the events of the game are reported;
+     *            NullGameLog.INSTANCE to report nothing.
+     * @param deck
+     *            A full, shuffled Deck, whose generator should not be shared
+     *            with another thread.
+     */
+    public Game(Scoreboard scoreboard, PlayerFactory[] players, GameLog log,
+            Deck deck)
     {
         this.scoreboard = scoreboard;
-        this.printVerbose = printVerbose;
-        deck = new Deck();
+        this.log = log;
+        this.rand = deck.getRandom();
+        this.players = players;
+        this.deck = deck;
         h = new Hand[scoreboard.getNumPlayers()];
-        gameSummary = new ArrayList<Turn>();
+        gameSummary = new TurnLog();
         mostRecentColorCalled = new UnoPlayer.Color[scoreboard.getNumPlayers()];
-        dealInitialHands(playerClassList);
+        state = new GameState(this);
+        setUp();
+    }
+
+    /**
+     * Get this Game ready to be played again, as a new game dealt from the
+     * given seed: the game's random number generator is reseeded, the deck
+     * refilled and reshuffled, and new hands dealt. The Deck, Hands, and other
+     * containers of this Game are reused, so that one Game object can play a
+     * long series of games without allocating new ones. The players' strategy
+     * objects are obtained afresh from their factories. The Scoreboard is
+     * left as is.
+     * 
+     * @param seed
+     *            The seed of the new game (see SplitRandom.gameSeed()).
+     */
+    public void reset(long seed)
+    {
+        rand.setSeed(seed);
+        deck.reset();
+        gameSummary.clear();
+        Arrays.fill(mostRecentColorCalled, null);
+        setUp();
+    }
+
+    /**
+     * Get this Game ready to be played again, as reset(seed) does, but with
+     * the deal rotated: each player is dealt the hand that the player the
+     * given number of seats after them would have been dealt, and play starts
+     * that many seats earlier. Playing every rotation of one seed deals every
+     * player every seat's cards (see Match.setDuplicate()). The rotation
+     * holds for the next resets, until it is changed.
+     * 
+     * @param seed
+     *            The seed of the new game (see SplitRandom.gameSeed()).
+     * @param rotation
+     *            The rotation of the deal, from 0 (none) to one less than the
+     *            number of players
+     */
+    public void reset(long seed, int rotation)
+    {
+        this.rotation = rotation;
+        reset(seed);
+    }
+
+    /**
+     * Get this Game ready to be played again, as a new game dealt from a deck
+     * that was shuffled ahead of time by a DealPipeline. The game then plays
+     * out exactly as it would after reset(SplitRandom.gameSeed(seed, n)), n
+     * being the number of the deal. This Game's random number generator must
+     * be a SplitRandom.
+     * 
+     * @param deal
+     *            The shuffled deck, and the state of its generator
+     */
+    void reset(DealPipeline.Deal deal)
+    {
+        rand.setSeed(deal.getRandState());
+        deck.load(deal.getCards());
+        gameSummary.clear();
+        Arrays.fill(mostRecentColorCalled, null);
+        setUp();
+    }
+
+    /**
+     * Deals the hands and resets all game settings so that play() can be
+     * safely called.
+     */
+    private void setUp()
+    {
+        dealInitialHands(players);
         direction = Direction.FORWARDS;
-        currPlayer = new java.util.Random().nextInt(scoreboard.getNumPlayers());
+        int numPlayers = scoreboard.getNumPlayers();
+        currPlayer = (rand.nextInt(numPlayers) + numPlayers - rotation)
+                % numPlayers;
         calledColor = UnoPlayer.Color.NONE;
         firstCard = upCard;
     }
 
     /**
-     * Deals the initial hands.
+     * Deals the initial hands, creating the Hands on the first deal and
+     * emptying them on the next ones.
      * 
-     * @param playerClassList
-     *            An array of Strings, each of which is a fully-qualified
-     *            package/class name of a class that implements the UnoPlayer
-     *            interface
+     * @param players
+     *            The factories of the contestants' UnoPlayer strategies
+     * @throws IllegalStateException
+     *             if the deck runs out before the hands are dealt.
      */
-    private void dealInitialHands(ArrayList<String> playerClassList)
+    private void dealInitialHands(PlayerFactory[] players)
     {
         try
         {
-            for (int i = 0; i < scoreboard.getNumPlayers(); i++)
+            int numPlayers = scoreboard.getNumPlayers();
+            for (int i = 0; i < numPlayers; i++)
             {
-                h[i] = new Hand(playerClassList.get(i),
-                        scoreboard.getPlayerList()[i]);
+                if (h[i] == null)
+                {
+                    h[i] = new Hand(players[i],
+                            scoreboard.getPlayerList()[i]);
+                    if (latencies != null)
+                    {
+                        h[i].setTimer(latencies.getSeat(i));
+                    }
+                    h[i].setTimeBudget(budget, i);
+                }
+                else
+                {
+                    h[i].reset(players[i].newPlayer());
+                }
+            }
+            for (int k = 0; k < numPlayers; k++)
+            {
+                Hand dealtTo = h[(k + numPlayers - rotation) % numPlayers];
                 for (int j = 0; j < INIT_HAND_SIZE; j++)
                 {
-                    h[i].addCard(deck.draw());
+                    dealtTo.addCard(deck.draw());
                 }
             }
             deck.makeFirstCardNonWild();
@@ -128,12 +331,10 @@ public class Game
                 upCard = deck.draw();
             }
         }
-        catch (Exception e)
+        catch (EmptyDeckException e)
         {
-            System.out.println("Can't deal initial hands!");
-            System.exit(1);
+            throw new IllegalStateException("Can't deal initial hands!", e);
         }
-
     }
 
     /**
@@ -197,6 +398,10 @@ public class Game
         {
             playedCard = h[currPlayer].play(this);
         }
+        catch (TimeBudget.Forfeit e)
+        {
+            throw e;
+        }
         catch (Exception e)
         {
             StringWriter errors = new StringWriter();
@@ -225,12 +430,12 @@ public class Game
         }
         catch (Exception e)
         {
-            print("...deck exhausted, remixing...");
+            log.deckRemixed();
             deck.remix();
             drawnCard = deck.draw();
         }
         h[currPlayer].addCard(drawnCard);
-        print(" has to draw (" + drawnCard + ").");
+        log.cardDrawn(h[currPlayer], drawnCard);
         playedCard = h[currPlayer].play(this);
         return playedCard;
     }
@@ -247,7 +452,7 @@ public class Game
     private UnoPlayer.Color updateGame(Card playedCard,
             UnoPlayer.Color currentCall)
     {
-        print(" plays " + playedCard + " on " + upCard + ".");
+        log.cardPlayed(h[currPlayer], playedCard, upCard);
         deck.discard(upCard);
         upCard = playedCard;
         if (upCard.followedByCall())
@@ -255,7 +460,7 @@ public class Game
             calledColor = h[currPlayer].callColor(this);
             currentCall = calledColor;
             mostRecentColorCalled[currPlayer] = calledColor;
-            print(" (and calls " + calledColor + ").");
+            log.colorCalled(h[currPlayer], calledColor);
         }
         else
         {
@@ -278,15 +483,38 @@ public class Game
             {
                 roundPoints += h[j].countCards();
             }
-            println("\n" + h[currPlayer].getPlayerName()
-                    + " wins! (and collects " + roundPoints + " points.)");
+            pointsWon = roundPoints;
             scoreboard.addToScore(currPlayer, roundPoints);
-            println("---------------\n" + scoreboard);
+            log.gameWon(h[currPlayer], roundPoints, scoreboard);
             return true;
         }
         return false;
     }
 
+    /**
+     * Scores a game the current player forfeited, as a loss the others share:
+     * each of them collects an equal share (rounded down) of the points a
+     * winner would have collected.
+     */
+    private void scoreForfeit()
+    {
+        int numPlayers = scoreboard.getNumPlayers();
+        int roundPoints = 0;
+        for (int j = 0; j < numPlayers; j++)
+        {
+            roundPoints += h[j].countCards();
+        }
+        pointsWon = roundPoints / (numPlayers - 1);
+        for (int j = 0; j < numPlayers; j++)
+        {
+            if (j != currPlayer)
+            {
+                scoreboard.addToScore(j, pointsWon);
+            }
+        }
+        log.gameForfeited(h[currPlayer], pointsWon, scoreboard);
+    }
+
     /**
      * Advances to the next player after performing card effects.
      * 
@@ -320,7 +548,7 @@ public class Game
         throws EmptyDeckException
     {
         boolean drawing = false;
-        print(h[currPlayer].getPlayerName() + " (" + h[currPlayer] + ")");
+        log.turnStarted(h[currPlayer]);
         Card playedCard = currPlayerPlay();
         if (playedCard == null)
         {
@@ -332,19 +560,19 @@ public class Game
             currentCall = updateGame(playedCard, currentCall);
         }
 
-        gameSummary.add(new Turn(currPlayer, playedCard, currentCall, drawing));
+        gameSummary.add(currPlayer, playedCard, currentCall, drawing);
 
-        // Check win
-        if (isWin())
+        // Check win; play() scores it.
+        if (h[currPlayer].isEmpty())
         {
             return currentCall;
         }
         // Check Uno
         if (h[currPlayer].size() == 1)
         {
-            print(" UNO!");
+            log.uno(h[currPlayer]);
         }
-        println("");
+        log.turnEnded(h[currPlayer]);
         advance(playedCard);
         return currentCall;
     }
@@ -353,12 +581,17 @@ public class Game
      * Play an entire Game of Uno from start to finish. Hands should have
      * already been dealt before this method is called, and a valid up card
      * turned up. When the method is completed, the Game's scoreboard object
-     * will have been updated with new scoring favoring the winner.
+     * will have been updated with new scoring favoring the winner. A player
+     * who forfeits the game by running out of time (see TimeBudget) loses it,
+     * and the others share the points a winner would have collected.
      */
     public void play()
     {
         UnoPlayer.Color currentCall = UnoPlayer.Color.NONE;
-        println("Initial upcard is " + upCard + ".");
+        int dealt = deck.getNumDrawn();
+        winner = -1;
+        forfeiter = -1;
+        log.gameStarted(upCard);
         try
         {
             while (true)
@@ -366,54 +599,140 @@ public class Game
                 currentCall = takeTurn(currentCall);
                 if (isWin())
                 {
+                    winner = currPlayer;
+                    if (stats != null)
+                    {
+                        stats.gameWon(currPlayer, pointsWon,
+                                gameSummary.size(), deck.getNumDrawn() - dealt,
+                                deck.getNumRemixes());
+                    }
+                    log.gameEnded();
                     return;
                 }
             }
         }
         catch (EmptyDeckException e)
         {
-            System.out.println("Deck exhausted! This game is a draw.");
+            if (stats != null)
+            {
+                stats.gameDrawn(gameSummary.size(),
+                        deck.getNumDrawn() - dealt, deck.getNumRemixes());
+            }
+            log.gameDrawn();
+            log.gameEnded();
+        }
+        catch (TimeBudget.Forfeit e)
+        {
+            forfeiter = currPlayer;
+            scoreForfeit();
+            if (stats != null)
+            {
+                stats.gameForfeited(forfeiter, gameSummary.size(),
+                        deck.getNumDrawn() - dealt, deck.getNumRemixes());
+            }
+            log.gameEnded();
         }
     }
 
     /**
-     * Custom print command that only prints in verbose mode.
+     * Record the outcome of this Game (and of the games it is reset() for) in
+     * the given statistics when it ends.
      * 
-     * @param s
-     *            The string to print
+     * @param stats
+     *            The statistics, or null to record nothing
      */
-    void print(String s)
+    public void setStatistics(MatchStatistics stats)
     {
-        if (printVerbose)
+        this.stats = stats;
+    }
+
+    /**
+     * Time the decisions of the strategies of this Game (and of the games it
+     * is reset() for).
+     * 
+     * @param latencies
+     *            The latencies to record the timings in, or null to time
+     *            nothing
+     */
+    public void setLatencies(DecisionLatencies latencies)
+    {
+        this.latencies = latencies;
+        for (int i = 0; i < h.length; i++)
         {
-            System.out.print(s);
+            h[i].setTimer(latencies == null ? null : latencies.getSeat(i));
         }
     }
 
     /**
-     * Custom println command that only prints in verbose mode.
+     * Limit the time the strategies of this Game (and of the games it is
+     * reset() for) may take to decide. See TimeBudget.
      * 
-     * @param s
-     *            The string to print
+     * @param budget
+     *            The budget, or null for no limit
      */
-    void println(String s)
+    public void setTimeBudget(TimeBudget budget)
     {
-        if (printVerbose)
+        this.budget = budget;
+        for (int i = 0; i < h.length; i++)
         {
-            System.out.println(s);
+            h[i].setTimeBudget(budget, i);
         }
     }
 
+    /**
+     * @return the latencies the decisions of this Game are timed into, or
+     *         null.
+     */
+    public DecisionLatencies getLatencies()
+    {
+        return latencies;
+    }
+
+    /**
+     * @return the statistics this Game records itself in, or null.
+     */
+    public MatchStatistics getStatistics()
+    {
+        return stats;
+    }
+
+    /**
+     * @return the zero-based number of the winner of the game last played, or
+     *         -1 if it was a draw or forfeited.
+     */
+    int getWinner()
+    {
+        return winner;
+    }
+
+    /**
+     * @return the zero-based number of the player who forfeited the game last
+     *         played (see TimeBudget), or -1 if nobody did.
+     */
+    int getForfeiter()
+    {
+        return forfeiter;
+    }
+
+    /**
+     * @return the points of the game last played, if it was won, or the
+     *         points each other player collected, if it was forfeited.
+     */
+    int getPointsWon()
+    {
+        return pointsWon;
+    }
+
     /**
      * Return the GameState object, through which the state of the game can be
-     * accessed and safely manipulated.
+     * accessed and safely manipulated. The same object is returned for the
+     * whole game, and always reflects the current state of the game.
      * 
      * @return The current GamesState
      */
     public GameState getGameState()
     {
-
-        return new GameState(this);
+        return state;
     }
 
     /**
@@ -0,0 +1,142 @@
+package uno;
+
+/**
+ * <p>
+ * A GameLog receives the events of a Game as they happen: cards drawn and
+ * played, colors called, the winner... The Game passes the objects involved
+ * rather than ready-made messages, so that a log is free to format them (or
+ * not) as it likes. NullGameLog ignores every event, which makes a quiet game
+ * pay nothing for logging; PrintGameLog narrates the game in text.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public interface GameLog
+{
+
+    /**
+     * The game is about to start.
+     * 
+     * @param upCard
+     *            The initial up card
+     */
+    void gameStarted(Card upCard);
+
+    /**
+     * A player's turn begins.
+     * 
+     * @param hand
+     *            The hand of the player whose turn it is
+     */
+    void turnStarted(Hand hand);
+
+    /**
+     * The current player could not play and had to draw.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param card
+     *            The card drawn
+     */
+    void cardDrawn(Hand hand, Card card);
+
+    /**
+     * The current player played a card.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param card
+     *            The card played
+     * @param upCard
+     *            The up card it was played on
+     */
+    void cardPlayed(Hand hand, Card card, Card upCard);
+
+    /**
+     * The current player called a color after playing a wild.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param color
+     *            The color called
+     */
+    void colorCalled(Hand hand, UnoPlayer.Color color);
+
+    /**
+     * A player had to draw because of the card played by the previous player.
+     * 
+     * @param hand
+     *            The hand of the player drawing
+     * @param card
+     *            The card drawn
+     */
+    void penaltyDrawn(Hand hand, Card card);
+
+    /**
+     * The draw pile ran out and the discard pile was shuffled back into it.
+     */
+    void deckRemixed();
+
+    /**
+     * The current player is down to one card.
+     * 
+     * @param hand
+     *            The hand of the current player
+     */
+    void uno(Hand hand);
+
+    /**
+     * The current player's turn is over.
+     * 
+     * @param hand
+     *            The hand of the current player
+     */
+    void turnEnded(Hand hand);
+
+    /**
+     * A decision of a player's strategy ran out of time (see TimeBudget).
+     * 
+     * @param hand
+     *            The hand of the player
+     * @param allowedNanos
+     *            The time the decision was given, in nanoseconds
+     */
+    void timeExceeded(Hand hand, long allowedNanos);
+
+    /**
+     * The current player has won the game.
+     * 
+     * @param hand
+     *            The hand of the winner
+     * @param points
+     *            The points the winner collects
+     * @param scoreboard
+     *            The Scoreboard, once the points have been added
+     */
+    void gameWon(Hand hand, int points, Scoreboard scoreboard);
+
+    /**
+     * The deck ran out, even after remixing the discard pile, so the game is
+     * a draw.
+     */
+    void gameDrawn();
+
+    /**
+     * A player forfeited the game, which the others share.
+     * 
+     * @param hand
+     *            The hand of the player who forfeited
+     * @param points
+     *            The points each other player collects
+     * @param scoreboard
+     *            The Scoreboard, once the points have been added
+     */
+    void gameForfeited(Hand hand, int points, Scoreboard scoreboard);
+
+    /**
+     * The game is over (whether it was won or not). A log that buffers its
+     * output should flush it.
+     */
+    void gameEnded();
+}
@@ -9,6 +9,13 @@ package uno;
  * hand (!), etc.) are reflected in the GameState object -- only those for which
  * it makes sense for a player to have access.
  * </p>
+ * <p>
+ * A Game has a single GameState, handed to its players on every turn. It reads
+ * the live state of the game rather than holding a copy of it, so nothing is
+ * copied on a turn unless a player asks for it: the per-player arrays, in
+ * particular, are only filled when requested, and getNumCardsInHandOfPlayer()
+ * and getTotalScoreOfPlayer() answer for a single player without filling any.
+ * </p>
  * 
  * @since 2.0
  * @author Stephen Davies
@@ -54,28 +61,9 @@ public class GameState
      */
     GameState(Game game)
     {
-
-        firstCard = game.firstCard;
         numPlayers = game.scoreboard.getNumPlayers();
-        numCardsInHandsOfPlayers = new int[game.scoreboard.getNumPlayers()];
-        totalScoreOfPlayers = new int[game.scoreboard.getNumPlayers()];
-
-        if (game.direction == Game.Direction.FORWARDS)
-        {
-            for (int i = 0; i < game.h.length; i++)
-            {
-                numCardsInHandsOfPlayers[i] = game.h[i].size();
-                totalScoreOfPlayers[i] = game.scoreboard.getScore(i);
-            }
-        }
-        else
-        {
-            for (int i = 0; i < game.h.length; i++)
-            {
-                numCardsInHandsOfPlayers[i] = game.h[i].size();
-                totalScoreOfPlayers[i] = game.scoreboard.getScore(i);
-            }
-        }
+        numCardsInHandsOfPlayers = new int[numPlayers];
+        totalScoreOfPlayers = new int[numPlayers];
         theGame = game;
     }
 
@@ -97,6 +85,10 @@ public class GameState
      */
     public Card getFirstUpCard()
     {
+        if (theGame != null)
+        {
+            return theGame.firstCard;
+        }
         return firstCard;
     }
 
@@ -104,24 +96,71 @@ public class GameState
      * Get the number of cards for each player.
      * 
      * @return an array of ints indicating the number of cards each player has
-     *         remaining. The array is ordered by playerId.
+     *         remaining. The array is ordered by playerId. It is refilled on
+     *         every call.
      */
     public int[] getNumCardsInHandsOfPlayers()
     {
+        if (theGame != null)
+        {
+            for (int i = 0; i < numPlayers; i++)
+            {
+                numCardsInHandsOfPlayers[i] = theGame.h[i].size();
+            }
+        }
         return numCardsInHandsOfPlayers;
     }
 
+    /**
+     * Get the number of cards of one player.
+     * 
+     * @param playerId
+     *            The id of the player
+     * @return the number of cards that player has remaining.
+     */
+    public int getNumCardsInHandOfPlayer(int playerId)
+    {
+        if (theGame == null)
+        {
+            return numCardsInHandsOfPlayers[playerId];
+        }
+        return theGame.h[playerId].size();
+    }
+
     /**
      * Gets the total score for each player.
      * 
      * @return an array of ints indicating the total overall score each player
-     *         has. The array is ordered by playerId.
+     *         has. The array is ordered by playerId. It is refilled on every
+     *         call, with the scores all taken at the same point in time. In a
+     *         parallel match, these are the match standings shared by every
+     *         thread (see Scoreboard.getStandings()).
      */
     public int[] getTotalScoreOfPlayers()
     {
+        if (theGame != null)
+        {
+            theGame.scoreboard.getStandings().snapshot(totalScoreOfPlayers);
+        }
         return totalScoreOfPlayers;
     }
 
+    /**
+     * Gets the total score of one player.
+     * 
+     * @param playerId
+     *            The id of the player
+     * @return the total overall score of that player.
+     */
+    public int getTotalScoreOfPlayer(int playerId)
+    {
+        if (theGame == null)
+        {
+            return totalScoreOfPlayers[playerId];
+        }
+        return theGame.scoreboard.getStandings().getScore(playerId);
+    }
+
     /**
      * Gets the number of cards in the discard pile.
      * 
@@ -130,7 +169,7 @@ public class GameState
      */
     public int getNumberOfCardsInDiscardPile()
     {
-        return theGame.deck.getDiscardedCards().size() + 1;
+        return theGame.deck.getNumDiscardedCards() + 1;
     }
 
     /**
@@ -183,7 +222,10 @@ public class GameState
      *         turn, etc. This information allows a player to "remember" what
      *         each player has played, and when a player had to draw. returns
      *         null if value is less than zero, or value is greater than or
-     *         equal to getNumberOfTurnsTaken()
+     *         equal to getNumberOfTurnsTaken(). Every call returns the same
+     *         Turn object, re-pointed at the turn asked for, so scanning the
+     *         history allocates nothing; read it before the next call, or
+     *         build a new Turn from it to keep it.
      */
     public Turn getTurn(int value)
     {
@@ -191,7 +233,7 @@ public class GameState
         {
             if (value >= 0 && value < theGame.gameSummary.size())
             {
-                return theGame.gameSummary.get(value);
+                return theGame.gameSummary.getTurn(value);
             }
             else
             {
@@ -201,6 +243,32 @@ public class GameState
         return null;
     }
 
+    /**
+     * Copy a range of turns, each packed into an int, to an array. Use
+     * Turn.playerIdOf(), Turn.cardIdOf(), Turn.calledColorOf() and
+     * Turn.hadToDrawOf() to unpack them.
+     * 
+     * @param from
+     *            The index of the first turn to copy (0 for the first turn of
+     *            the game)
+     * @param to
+     *            One past the index of the last turn to copy, at most
+     *            getNumberOfTurnsTaken()
+     * @param dst
+     *            Where to copy the turns, from index 0
+     * @return the number of turns copied.
+     */
+    public int copyTurns(int from, int to, int[] dst)
+    {
+        if (theGame == null || from < 0 || to > theGame.gameSummary.size()
+                || from >= to)
+        {
+            return 0;
+        }
+        theGame.gameSummary.copyTurns(from, to, dst);
+        return to - from;
+    }
+
     /**
      * Checks if the current game direction is clockise.
      * 
@@ -1,8 +1,8 @@
 package uno;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
 
 /**
  * <p>
@@ -12,6 +12,14 @@ import java.util.ArrayList;
  * pattern by which this choice can be delegated to an arbitrary implementer of
  * the UnoPlayer class.
  * </p>
+ * <p>
+ * Internally, a Hand stores the ids of its cards (see Card.getId()) as bytes,
+ * in the order they were drawn, along with per-id, per-color, per-rank and
+ * per-number counts, bitmasks of the colors, ranks and numbers present, and
+ * the running forfeit total. Its size, its forfeit value and whether it holds
+ * any legal play are then all answered in constant time. The List of Cards
+ * handed to a strategy is only built when a strategy is asked to decide.
+ * </p>
  * 
  * @author Stephen Davies
  * @author Alice McRae
@@ -20,9 +28,34 @@ import java.util.ArrayList;
 public class Hand
 {
 
-    private ArrayList<Card> cards;
+    /**
+     * The number of slots allocated for card ids up front.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] ids = new byte[INITIAL_CAPACITY];
+    private int size;
+    private int[] idCounts = new int[Card.NUM_IDS];
+    private int[] colorCounts = new int[UnoPlayer.Color.values().length];
+    private int[] rankCounts = new int[UnoPlayer.Rank.values().length];
+    private int[] numberCounts = new int[10];
+    private int colorMask;
+    private int rankMask;
+    private int numberMask;
+    private int forfeitTotal;
+    private long idMask;
+    private int generation;
+    private HandView view = new HandView(this);
     private UnoPlayer player;
+    private UnoPlayer fallback;
+    private PlayerFactory factory;
+    private boolean abandoned;
     private String playerName;
+    private DecisionLatencies.Seat timer;
+    private TimeBudget budget;
+    private int seat;
+    private long nanosUsed;
+    private boolean forcedDraw;
 
     /**
      * Instantiate a Hand object to be played by the UnoPlayer class, and the
@@ -37,32 +70,164 @@ public class Hand
      */
     public Hand(String unoPlayerClassName, String playerName)
     {
-        try
-        {
-            player = (UnoPlayer) Class.forName(unoPlayerClassName)
-                .newInstance();
-        }
-        catch (Exception e)
-        {
-            StringWriter errors = new StringWriter();
-            e.printStackTrace(new PrintWriter(errors));
-            throw new RuntimeException("Problem with " + unoPlayerClassName
-                + ".\n" + errors);
-            // System.exit(1);
-        }
+        this(new PlayerFactory(unoPlayerClassName,
+            PlayerFactory.Policy.PER_GAME), playerName);
+    }
+
+    /**
+     * Instantiate a Hand object played by a strategy object of the given
+     * factory, which also supplies a new one should the strategy run out of
+     * time.
+     * 
+     * @param factory
+     *            the factory of the strategy choosing the cards to play
+     * @param playerName
+     *            the name of the player
+     */
+    Hand(PlayerFactory factory, String playerName)
+    {
+        this(factory.newPlayer(), playerName);
+        this.factory = factory;
+    }
+
+    /**
+     * Instantiate a Hand object to be played by the given strategy object.
+     * 
+     * @param player
+     *            the strategy choosing the cards to play
+     * @param playerName
+     *            the name of the player
+     */
+    public Hand(UnoPlayer player, String playerName)
+    {
+        this.player = player;
         this.playerName = playerName;
-        cards = new ArrayList<Card>();
+    }
+
+    /**
+     * Empty this hand for a new game, keeping its storage.
+     * 
+     * @param newPlayer
+     *            the strategy that plays the hand in the new game
+     */
+    void reset(UnoPlayer newPlayer)
+    {
+        player = newPlayer;
+        fallback = null;
+        abandoned = false;
+        size = 0;
+        Arrays.fill(idCounts, 0);
+        Arrays.fill(colorCounts, 0);
+        Arrays.fill(rankCounts, 0);
+        Arrays.fill(numberCounts, 0);
+        colorMask = 0;
+        rankMask = 0;
+        numberMask = 0;
+        forfeitTotal = 0;
+        idMask = 0;
+        nanosUsed = 0;
+        generation++;
+    }
+
+    /**
+     * Time the decisions of this hand's strategy.
+     * 
+     * @param timer
+     *            the timer of the hand's seat, or null to time nothing
+     */
+    void setTimer(DecisionLatencies.Seat timer)
+    {
+        this.timer = timer;
+    }
+
+    /**
+     * Limit the time this hand's strategy may take to decide.
+     * 
+     * @param budget
+     *            the budget, or null for no limit
+     * @param seat
+     *            the number of the hand's seat, whose watchdog threads call
+     *            the strategy
+     */
+    void setTimeBudget(TimeBudget budget, int seat)
+    {
+        this.budget = budget;
+        this.seat = seat;
     }
 
     /**
      * Add (draw) a card to the hand.
      * 
      * @param c
-     *            the card to add
+     *            the card to add, which must be one of the canonical Cards.
      */
     void addCard(Card c)
     {
-        cards.add(c);
+        int id = c.getId();
+        if (id < 0)
+        {
+            throw new IllegalArgumentException("Not an Uno card: " + c);
+        }
+        if (size == ids.length)
+        {
+            ids = Arrays.copyOf(ids, 2 * size);
+        }
+        generation++;
+        ids[size++] = (byte) id;
+        idCounts[id]++;
+        idMask |= 1L << id;
+        forfeitTotal += c.forfeitCost();
+        int color = c.getColor().ordinal();
+        if (colorCounts[color]++ == 0)
+        {
+            colorMask |= 1 << color;
+        }
+        int rank = c.getRank().ordinal();
+        if (rankCounts[rank]++ == 0)
+        {
+            rankMask |= 1 << rank;
+        }
+        if (c.getRank() == UnoPlayer.Rank.NUMBER
+                && numberCounts[c.getNumber()]++ == 0)
+        {
+            numberMask |= 1 << c.getNumber();
+        }
+    }
+
+    /**
+     * Remove a card from the hand.
+     * 
+     * @param index
+     *            the position of the card in the hand.
+     * @return the removed card.
+     */
+    private Card removeCard(int index)
+    {
+        Card c = Card.forId(ids[index]);
+        generation++;
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        if (--idCounts[c.getId()] == 0)
+        {
+            idMask &= ~(1L << c.getId());
+        }
+        forfeitTotal -= c.forfeitCost();
+        int color = c.getColor().ordinal();
+        if (--colorCounts[color] == 0)
+        {
+            colorMask &= ~(1 << color);
+        }
+        int rank = c.getRank().ordinal();
+        if (--rankCounts[rank] == 0)
+        {
+            rankMask &= ~(1 << rank);
+        }
+        if (c.getRank() == UnoPlayer.Rank.NUMBER
+                && --numberCounts[c.getNumber()] == 0)
+        {
+            numberMask &= ~(1 << c.getNumber());
+        }
+        return c;
     }
 
     /**
@@ -72,7 +237,90 @@ public class Hand
      */
     public int size()
     {
-        return cards.size();
+        return size;
+    }
+
+    /**
+     * Get the id of a card.
+     * 
+     * @param index
+     *            the position of the card in the hand.
+     * @return the id of the card (see Card.getId()).
+     */
+    int idAt(int index)
+    {
+        return ids[index];
+    }
+
+    /**
+     * Get the generation of the hand, which changes whenever the hand changes
+     * and whenever a call to its strategy returns.
+     * 
+     * @return the generation counter.
+     */
+    int getGeneration()
+    {
+        return generation;
+    }
+
+    /**
+     * Get the number of copies of a card in the hand.
+     * 
+     * @param id
+     *            A card id (see Card.getId())
+     * @return how many cards with that id this hand holds.
+     */
+    public int count(int id)
+    {
+        return idCounts[id];
+    }
+
+    /**
+     * Gets, in constant time, the cards of this hand that can be played.
+     * 
+     * @param upCard
+     *            The up card, which must be a legal Uno card (getId() >= 0)
+     * @param calledColor
+     *            The called color, if the up card is a wild
+     * @return a bitmask whose bit i is set if and only if this hand holds a
+     *         card with id i that can legally be played on the up card.
+     */
+    public long legalCardIds(Card upCard, UnoPlayer.Color calledColor)
+    {
+        return idMask & Card.playableIds(upCard, calledColor);
+    }
+
+    /**
+     * Determines, in constant time, whether this hand holds a card that can be
+     * played.
+     * 
+     * @param upCard
+     *            The up card
+     * @param calledColor
+     *            The called color, if the up card is a wild
+     * @return true if at least one card of the hand can legally be played on
+     *         the up card (see Card.canPlayOn()).
+     */
+    public boolean hasLegalPlay(Card upCard, UnoPlayer.Color calledColor)
+    {
+        if (upCard.getId() >= 0)
+        {
+            return legalCardIds(upCard, calledColor) != 0;
+        }
+        int wilds = (1 << UnoPlayer.Rank.WILD.ordinal())
+                | (1 << UnoPlayer.Rank.WILD_D4.ordinal());
+        if ((rankMask & wilds) != 0
+                || (colorMask & (1 << upCard.getColor().ordinal())) != 0
+                || (colorMask & (1 << calledColor.ordinal())) != 0)
+        {
+            return true;
+        }
+        if (upCard.getRank() != UnoPlayer.Rank.NUMBER)
+        {
+            return (rankMask & (1 << upCard.getRank().ordinal())) != 0;
+        }
+        return upCard.getNumber() >= 0 && upCard.getNumber() <= 9
+                && (numberMask & (1 << upCard.getNumber())) != 0;
     }
 
     /**
@@ -89,17 +337,38 @@ public class Hand
     Card play(Game game)
     {
         int playedCard;
-        ArrayList<Card> copiedCards = copyCards();
-        playedCard = player.play(copiedCards, game.getUpCard(),
-            game.calledColor, game.getGameState());
-        verify(cards, playedCard, game.getUpCard(), game.calledColor);
+        Card upCard = game.getUpCard();
+        long legalIds = legalCardIds(upCard, game.calledColor);
+        view.open(legalIds);
+        boolean timed = timer != null && timer.sample();
+        long start = timed ? System.nanoTime() : 0;
+        forcedDraw = false;
+        if (budget == null)
+        {
+            playedCard = player.play(view, upCard, game.calledColor,
+                game.getGameState());
+        }
+        else
+        {
+            playedCard = budgetedPlay(game, upCard, legalIds);
+        }
+        if (timed)
+        {
+            timer.playTimed(System.nanoTime() - start);
+        }
+        generation++;
+        if (forcedDraw)
+        {
+            return null;
+        }
+        verify(playedCard, legalIds, upCard, game.calledColor);
         if (playedCard == -1)
         {
             return null;
         }
         else
         {
-            Card toPlay = cards.remove(playedCard);
+            Card toPlay = removeCard(playedCard);
             return toPlay;
         }
     }
@@ -116,11 +385,27 @@ public class Hand
      */
     UnoPlayer.Color callColor(Game game)
     {
-        UnoPlayer.Color c = player.callColor(cards);
+        view.open(0);
+        boolean timed = timer != null && timer.sample();
+        long start = timed ? System.nanoTime() : 0;
+        UnoPlayer.Color c;
+        if (budget == null)
+        {
+            c = player.callColor(view);
+        }
+        else
+        {
+            c = budgetedCallColor(game);
+        }
+        if (timed)
+        {
+            timer.callTimed(System.nanoTime() - start);
+        }
+        generation++;
         if (c == UnoPlayer.Color.NONE)
         {
             String message = playerName + " has called an illegal color\n";
-            message += "Your hand: " + cards + "\n";
+            message += "Your hand: " + copyCards() + "\n";
             message += "Played card: " + game.getUpCard() + "\n";
             message += "called color: " + c + "\n";
             throw new IllegalArgumentException(message);
@@ -128,13 +413,173 @@ public class Hand
         return c;
     }
 
+    /**
+     * Has the strategy choose a card within the time budget, or applies the
+     * budget's policy if it runs out of time (or ran out earlier in the game,
+     * and could not be replaced, or its class ignored an interrupt).
+     * 
+     * @param game
+     *            The current game
+     * @param upCard
+     *            The up card
+     * @param legalIds
+     *            The cards of the hand that can be played
+     * @return the index of the card to play, or -1 if none can be played.
+     *         When the strategy ran out of time and the player has to draw
+     *         whatever the hand holds, forcedDraw is set and -1 returned.
+     */
+    private int budgetedPlay(Game game, final Card upCard, long legalIds)
+    {
+        final UnoPlayer.Color calledColor = game.calledColor;
+        final GameState state = game.getGameState();
+        if (!abandoned && !budget.isStuck(player))
+        {
+            final UnoPlayer decider = player;
+            final HandView cards = view;
+            long allowed = budget.allowance(nanosUsed);
+            TimeBudget.Decision<Integer> decision =
+                new TimeBudget.Decision<Integer>(decider)
+                {
+                    Integer decide()
+                    {
+                        return decider.play(cards, upCard, calledColor,
+                            state);
+                    }
+                };
+            try
+            {
+                return budget.decide(seat, decision, allowed);
+            }
+            catch (TimeoutException e)
+            {
+                overrun(game, allowed);
+            }
+            finally
+            {
+                nanosUsed += decision.cpuNanos();
+            }
+        }
+        if (budget.getPolicy() == TimeBudget.Policy.FALLBACK)
+        {
+            HandView fresh = new HandView(this);
+            fresh.open(legalIds);
+            return budget.fallbackPlay(fallback(), fresh, upCard,
+                calledColor, state);
+        }
+        forcedDraw = true;
+        return -1;
+    }
+
+    /**
+     * Has the strategy call a color within the time budget, or applies the
+     * budget's policy if it runs out of time (or ran out earlier in the game,
+     * and could not be replaced, or its class ignored an interrupt).
+     * 
+     * @param game
+     *            The current game
+     * @return the color called.
+     */
+    private UnoPlayer.Color budgetedCallColor(Game game)
+    {
+        if (!abandoned && !budget.isStuck(player))
+        {
+            final UnoPlayer decider = player;
+            final HandView cards = view;
+            long allowed = budget.allowance(nanosUsed);
+            TimeBudget.Decision<UnoPlayer.Color> decision =
+                new TimeBudget.Decision<UnoPlayer.Color>(decider)
+                {
+                    UnoPlayer.Color decide()
+                    {
+                        return decider.callColor(cards);
+                    }
+                };
+            try
+            {
+                return budget.decide(seat, decision, allowed);
+            }
+            catch (TimeoutException e)
+            {
+                overrun(game, allowed);
+            }
+            finally
+            {
+                nanosUsed += decision.cpuNanos();
+            }
+        }
+        HandView fresh = new HandView(this);
+        fresh.open(0);
+        return budget.fallbackColor(fallback(), fresh);
+    }
+
+    /**
+     * Gets this hand's fallback player for the game, the first time the
+     * policy has to decide.
+     * 
+     * @return the fallback player, or null for the default strategy.
+     */
+    private UnoPlayer fallback()
+    {
+        if (fallback == null)
+        {
+            fallback = budget.newFallback();
+        }
+        return fallback;
+    }
+
+    /**
+     * Records a decision that ran out of time, and forfeits the game if that
+     * is the policy. The abandoned strategy may still be running on its
+     * watchdog thread, and strategies are not thread-safe, so it is never
+     * called again: a new one from the hand's factory makes the next
+     * decisions or, for a hand built without a factory, the policy makes
+     * every decision left in the game. (If it did not stop when interrupted,
+     * the policy makes the decisions of its class for the rest of the match;
+     * see TimeBudget.isStuck().) Its view of the hand is closed for
+     * good, and the hand gets a new one.
+     * 
+     * @param game
+     *            The current game
+     * @param allowed
+     *            The time the decision was given; if none, the strategy was
+     *            not called at all, and is kept
+     */
+    private void overrun(Game game, long allowed)
+    {
+        // The abandoned strategy may still be running: lock it out of the view.
+        generation++;
+        if (allowed > 0)
+        {
+            view = new HandView(this);
+        }
+        budget.recordViolation(player.getClass().getName(), allowed,
+            budget.isGameBudget(allowed));
+        game.log.timeExceeded(this, allowed);
+        if (allowed > 0)
+        {
+            // The strategy was called, and may not have stopped.
+            if (factory != null)
+            {
+                player = factory.replacePlayer();
+            }
+            else
+            {
+                abandoned = true;
+            }
+        }
+        if (budget.getPolicy() == TimeBudget.Policy.FORFEIT)
+        {
+            throw new TimeBudget.Forfeit(playerName);
+        }
+    }
+
     /**
      * @return true only if this Hand has no cards, which should trigger a
      *         winning condition.
      */
     public boolean isEmpty()
     {
-        return cards.size() == 0;
+        return size == 0;
     }
 
     /**
@@ -143,16 +588,16 @@ public class Hand
      */
     public String toString()
     {
-        String retval = "";
-        for (int i = 0; i < cards.size(); i++)
+        StringBuilder retval = new StringBuilder();
+        for (int i = 0; i < size; i++)
         {
-            retval += cards.get(i);
-            if (i < cards.size() - 1)
+            retval.append(Card.forId(ids[i]));
+            if (i < size - 1)
             {
-                retval += ",";
+                retval.append(',');
             }
         }
-        return retval;
+        return retval.toString();
     }
 
     /**
@@ -161,12 +606,7 @@ public class Hand
      */
     public int countCards()
     {
-        int total = 0;
-        for (int i = 0; i < cards.size(); i++)
-        {
-            total += cards.get(i).forfeitCost();
-        }
-        return total;
+        return forfeitTotal;
     }
 
     /**
@@ -182,14 +622,50 @@ public class Hand
      */
     public ArrayList<Card> copyCards()
     {
-        ArrayList<Card> copyOfCards = new ArrayList<Card>();
-        for (Card card : cards)
+        ArrayList<Card> copyOfCards = new ArrayList<Card>(size);
+        for (int i = 0; i < size; i++)
         {
-            copyOfCards.add(card);
+            copyOfCards.add(Card.forId(ids[i]));
         }
         return copyOfCards;
     }
 
+    /**
+     * Check for the legality of a play of this hand, in constant time.
+     * 
+     * @param playedCard
+     *            The index of the card played, or -1 for none.
+     * @param legalIds
+     *            The cards of the hand that can be played, as returned by
+     *            legalCardIds()
+     * @param topCard
+     *            The top card of the discard pile.
+     * @param colorToPlay
+     *            The color that must be played.
+     */
+    void verify(int playedCard, long legalIds, Card topCard,
+        UnoPlayer.Color colorToPlay)
+    {
+        boolean ok;
+        if (playedCard >= size || playedCard < -1)
+        {
+            ok = false;
+        }
+        else if (playedCard != -1)
+        {
+            ok = (legalIds & 1L << ids[playedCard]) != 0;
+        }
+        else
+        {
+            ok = legalIds == 0;
+        }
+        if (!ok)
+        {
+            // Let the full check report the illegal play.
+            verify(copyCards(), playedCard, topCard, colorToPlay);
+        }
+    }
+
     /**
      * Check for the legality of a play.
      * 
@@ -207,7 +683,7 @@ public class Hand
     {
         Card possibleCard;
         boolean ok = true;
-        if (playedCard >= cards.size())
+        if (playedCard >= cards.size() || playedCard < -1)
         {
             ok = false;
         }
@@ -0,0 +1,151 @@
+package uno;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+
+/**
+ * <p>
+ * The read-only List of Cards handed to an UnoPlayer strategy: the cards of
+ * its Hand, in order. Any attempt to modify it throws an
+ * UnsupportedOperationException.
+ * </p>
+ * <p>
+ * A HandView is not a copy: it reads the Hand's own storage, and each Hand
+ * reuses a single HandView from turn to turn. It is therefore only valid for
+ * the duration of the call it was handed to. The Hand counts its changes (and
+ * the end of each call) in a generation counter, and a view used once its
+ * generation is over, e.g. by a strategy that kept it from an earlier turn,
+ * throws a ConcurrentModificationException. Strategies that want to remember
+ * cards from one turn to the next must copy them.
+ * </p>
+ * <p>
+ * When the view is handed to play(), it also knows which of its cards can be
+ * legally played on the up card. The Hand works this out once per turn, in
+ * constant time, from the counts it maintains as cards come and go; the Hand
+ * checks the strategy's answer against the same result, so a strategy that
+ * uses it does not need to scan its hand with Card.canPlayOn(). Strategies
+ * that want it can cast the hand they are given:
+ * </p>
+ * 
+ * <pre>
+ * if (hand instanceof HandView &amp;&amp; !((HandView) hand).hasLegalPlay())
+ * {
+ *     return -1;
+ * }
+ * </pre>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class HandView extends AbstractList<Card> implements RandomAccess
+{
+
+    private Hand hand;
+    private int generation;
+    private long legalIds;
+
+    /**
+     * Instantiate the view of a hand. It is not valid until open() is called.
+     * 
+     * @param hand
+     *            The hand whose cards are viewed
+     */
+    HandView(Hand hand)
+    {
+        this.hand = hand;
+        this.generation = hand.getGeneration() - 1;
+    }
+
+    /**
+     * Make the view valid for the current generation of its hand.
+     * 
+     * @param legalCardIds
+     *            The bitmask of the card ids that can be played, or 0 if the
+     *            view is not used to choose a card to play.
+     */
+    void open(long legalCardIds)
+    {
+        generation = hand.getGeneration();
+        legalIds = legalCardIds;
+    }
+
+    /**
+     * Checks that the view is still valid.
+     * 
+     * @throws ConcurrentModificationException
+     *             if the hand has changed (or the call the view was handed to
+     *             has returned) since the view was opened.
+     */
+    private void checkGeneration()
+    {
+        if (generation != hand.getGeneration())
+        {
+            throw new ConcurrentModificationException(
+                    "HandView used after the end of its turn");
+        }
+    }
+
+    /**
+     * Get a card.
+     * 
+     * @param index
+     *            The position of the card in the hand
+     * @return the card.
+     */
+    public Card get(int index)
+    {
+        checkGeneration();
+        if (index < 0 || index >= hand.size())
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + hand.size());
+        }
+        return Card.forId(hand.idAt(index));
+    }
+
+    /**
+     * @return the number of cards in the hand.
+     */
+    public int size()
+    {
+        checkGeneration();
+        return hand.size();
+    }
+
+    /**
+     * Get the cards that can be played on the current up card.
+     * 
+     * @return a bitmask whose bit i is set if and only if this hand holds a
+     *         card with id i (see Card.getId()) that can be played on the
+     *         current up card, with the current called color.
+     */
+    public long getLegalCardIds()
+    {
+        checkGeneration();
+        return legalIds;
+    }
+
+    /**
+     * Determines whether a card of the hand can be played.
+     * 
+     * @param index
+     *            The position of the card in the hand
+     * @return true if the card at that position can be played on the current
+     *         up card, with the current called color.
+     */
+    public boolean isLegal(int index)
+    {
+        return (legalIds & 1L << get(index).getId()) != 0;
+    }
+
+    /**
+     * @return true if at least one card of the hand can be played on the
+     *         current up card, with the current called color.
+     */
+    public boolean hasLegalPlay()
+    {
+        checkGeneration();
+        return legalIds != 0;
+    }
+}
@@ -0,0 +1,160 @@
+package uno;
+
+/**
+ * <p>
+ * A histogram of durations in nanoseconds, in log-linear buckets: every
+ * power of two is split into 16 buckets of equal width, so that any duration,
+ * from a nanosecond to hours, is counted to within about 6% of its value in a
+ * fixed, small array. Recording is a few arithmetic operations and an array
+ * increment. Percentiles are reported as the upper bound of their bucket.
+ * </p>
+ * <p>
+ * A LatencyHistogram is not thread-safe; histograms filled on different
+ * threads are merge()d.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class LatencyHistogram
+{
+
+    /**
+     * The number of bits of each value kept below its leading bit.
+     */
+    private static final int SUB_BITS = 4;
+
+    /**
+     * The number of buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Enough buckets for every non-negative long.
+     */
+    private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private long[] counts = new long[NUM_BUCKETS];
+    private long count;
+    private long max;
+
+    /**
+     * Record a duration.
+     * 
+     * @param nanos
+     *            The duration, in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+        counts[bucketOf(nanos)]++;
+        count++;
+        if (nanos > max)
+        {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Add all the durations of another histogram to this one.
+     * 
+     * @param other
+     *            The other histogram
+     */
+    public void merge(LatencyHistogram other)
+    {
+        for (int i = 0; i < NUM_BUCKETS; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return the number of durations recorded.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return the longest duration recorded, exactly.
+     */
+    public long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Estimate a percentile of the durations.
+     * 
+     * @param percentile
+     *            The percentile, from 0 to 100
+     * @return the duration below which that percentage of the durations
+     *         fall, rounded up to the end of its bucket, or 0 if none were
+     *         recorded.
+     */
+    public long getPercentile(double percentile)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(lowestValueOf(i + 1) - 1, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Finds the bucket of a value.
+     * 
+     * @param value
+     *            A non-negative value
+     * @return the index of its bucket.
+     */
+    private static int bucketOf(long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Finds the smallest value of a bucket.
+     * 
+     * @param bucket
+     *            The index of the bucket
+     * @return the smallest value counted in it.
+     */
+    private static long lowestValueOf(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+        {
+            return bucket;
+        }
+        if (bucket >= NUM_BUCKETS)
+        {
+            return Long.MAX_VALUE;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+}
@@ -0,0 +1,800 @@
+package uno;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * A Match is a series of Games played by the same roster of players. The games
+ * can either be played one after the other on the calling thread, or split
+ * across a pool of worker threads. In the latter case each worker plays its
+ * share of the games against its own partial Scoreboard (every Game already
+ * creates its own Deck and player instances), a ConcurrentScoreboard.Local
+ * that flushes its points into the match standings every few games. The
+ * standings can be read, consistently, while the match is being played (see
+ * getStandings()).
+ * </p>
+ * <p>
+ * For strategies that block (on a file, a socket, another process...), a
+ * match can instead run every game as its own task on a virtual thread, with a
+ * limit on how many games are in flight at once.
+ * </p>
+ * <p>
+ * Every game of a match is dealt from its own random stream, derived from the
+ * match seed and the number of the game (see SplitRandom.forGame()), so a
+ * match played with the same seed gives the same totals however many threads
+ * it is split across.
+ * </p>
+ * <p>
+ * A match can also stop early, once a SequentialTest has decided which of two
+ * win rates a player has (see setSequentialTest()). The workers of a parallel
+ * match then take the games one at a time, in order, so that the games the
+ * test is waiting on are always the next ones played.
+ * </p>
+ * <p>
+ * In a duplicate match (see setDuplicate()), every deal is played once for
+ * each rotation of the seats, and the players are compared deal by deal, so
+ * that the luck of the deals cancels out.
+ * </p>
+ * <p>
+ * Note that during a parallel match the GameState seen by a strategy reports
+ * the shared match standings, which every worker only adds its points to
+ * every few games: a strategy that looks at the scores sees them at a point
+ * that depends on the timing of the threads, so its play (and the totals) may
+ * differ from one run to the next.
+ * </p>
+ *
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class Match
+{
+
+    private String[] playerNames;
+    private PlayerFactory[] players;
+    private boolean printVerbose;
+    private long seed;
+    private boolean lazyShuffle;
+    private int dealProducers;
+    private volatile Scoreboard standings;
+    private boolean collectStatistics;
+    private MatchStatistics statistics;
+    private SequentialTest test;
+    private int latencySampling;
+    private DecisionLatencies latencies;
+    private TimeBudget budget;
+    private boolean duplicate;
+    private DuplicateResults duplicateResults;
+    private volatile boolean stopped;
+
+    /**
+     * The number of games a worker plays between flushes of its points into
+     * the match standings.
+     */
+    private static final int FLUSH_EVERY = 64;
+
+    /**
+     * Instantiate a Match between the given players.
+     *
+     * @param playerNames
+     *            The names of the contestants, in seating order.
+     * @param playerClasses
+     *            The fully-qualified class names of the UnoPlayer
+     *            implementations used by each contestant, in the same order.
+     * @param printVerbose
+     *            Determines whether or not to print each play.
+     */
+    public Match(String[] playerNames, ArrayList<String> playerClasses,
+            boolean printVerbose)
+    {
+        this(playerNames, PlayerFactory.forClassNames(playerClasses,
+                PlayerFactory.Policy.PER_GAME), printVerbose);
+    }
+
+    /**
+     * Instantiate a Match between the given players. The strategy classes are
+     * resolved once, by the factories, for the whole match.
+     *
+     * @param playerNames
+     *            The names of the contestants, in seating order.
+     * @param players
+     *            The factories of the UnoPlayer strategies used by each
+     *            contestant, in the same order.
+     * @param printVerbose
+     *            Determines whether or not to print each play.
+     */
+    public Match(String[] playerNames, PlayerFactory[] players,
+            boolean printVerbose)
+    {
+        this.playerNames = playerNames;
+        this.players = players;
+        this.printVerbose = printVerbose;
+        this.seed = new Random().nextLong();
+    }
+
+    /**
+     * Set the master seed from which every game of the match is dealt. By
+     * default a Match picks a random seed.
+     *
+     * @param seed
+     *            The new master seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Choose how the decks of the match are shuffled: up front (the default),
+     * or lazily, one card at a time as cards are drawn. See Deck.
+     *
+     * @param lazyShuffle
+     *            true to shuffle lazily.
+     */
+    public void setLazyShuffle(boolean lazyShuffle)
+    {
+        this.lazyShuffle = lazyShuffle;
+    }
+
+    /**
+     * Shuffle the decks of the match ahead of time, on threads of their own
+     * (see DealPipeline), so that shuffling overlaps with play. The results
+     * are the same as without. Lazily shuffled decks are not pre-shuffled.
+     *
+     * @param dealProducers
+     *            The number of threads shuffling decks, or 0 (the default) to
+     *            let each game shuffle its own deck.
+     */
+    public void setDealProducers(int dealProducers)
+    {
+        this.dealProducers = dealProducers;
+    }
+
+    /**
+     * Collect statistics over the games of the match (see MatchStatistics).
+     *
+     * @param collectStatistics
+     *            true to collect statistics; false (the default) otherwise.
+     */
+    public void setCollectStatistics(boolean collectStatistics)
+    {
+        this.collectStatistics = collectStatistics;
+    }
+
+    /**
+     * @return the statistics of the last match played, or null if they were
+     *         not collected.
+     */
+    public MatchStatistics getStatistics()
+    {
+        return statistics;
+    }
+
+    /**
+     * Time the decisions of the strategies of the match (see
+     * DecisionLatencies).
+     *
+     * @param sampleEvery
+     *            Time one decision in this many (rounded up to a power of
+     *            two), or 0 (the default) to time none
+     */
+    public void setLatencySampling(int sampleEvery)
+    {
+        this.latencySampling = sampleEvery;
+    }
+
+    /**
+     * @return the decision latencies of the last match played, or null if
+     *         they were not timed.
+     */
+    public DecisionLatencies getLatencies()
+    {
+        return latencies;
+    }
+
+    /**
+     * Limit the time the strategies may take to decide, so that a slow or
+     * stuck strategy cannot stall the match. See TimeBudget.
+     *
+     * @param budget
+     *            The budget, shared by every game of the match, or null (the
+     *            default) for no limit
+     */
+    public void setTimeBudget(TimeBudget budget)
+    {
+        this.budget = budget;
+    }
+
+    /**
+     * Stop the match as soon as the given test has decided, rather than after
+     * the requested number of games. The test is reset when a match starts,
+     * and holds the decision once it is over. Every game started before the
+     * decision is still played to its end, and counted on the Scoreboard, so
+     * with several threads the Scoreboard may count a few more games than the
+     * test needed.
+     *
+     * @param test
+     *            The test, or null (the default) to always play every game.
+     */
+    public void setSequentialTest(SequentialTest test)
+    {
+        this.test = test;
+    }
+
+    /**
+     * Play a duplicate match: games n * d to n * (d + 1) - 1, n being the
+     * number of players, are all dealt from the seed of deal d, each with the
+     * deal rotated by one more seat (see Game.reset(long, int)), so that every
+     * player holds every seat's cards of every deal. The results of the
+     * players within each deal are compared in a DuplicateResults. Decks are
+     * not pre-shuffled in a duplicate match.
+     *
+     * @param duplicate
+     *            true for a duplicate match; false (the default) otherwise.
+     */
+    public void setDuplicate(boolean duplicate)
+    {
+        this.duplicate = duplicate;
+    }
+
+    /**
+     * @return the deal-by-deal comparison of the players of the last match
+     *         played, or null if it was not a duplicate match.
+     */
+    public DuplicateResults getDuplicateResults()
+    {
+        return duplicateResults;
+    }
+
+    /**
+     * @return the master seed from which every game of the match is dealt.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Get the standings of the match being played (or of the last match
+     * played), which may be read from any thread while the match is under
+     * way. During a parallel match, each worker's points are only added to
+     * them every few games; their snapshot() is always consistent.
+     *
+     * @return the match Scoreboard, or null if no match has been started.
+     */
+    public Scoreboard getStandings()
+    {
+        return standings;
+    }
+
+    /**
+     * Get ready to play a match.
+     *
+     * @param s
+     *            The Scoreboard of the match
+     */
+    private void start(Scoreboard s)
+    {
+        standings = s;
+        statistics = collectStatistics ? new MatchStatistics(playerNames)
+                : null;
+        latencies = newLatencies(latencySampling);
+        duplicateResults = duplicate ? new DuplicateResults(playerNames)
+                : null;
+        stopped = false;
+        if (test != null)
+        {
+            test.reset();
+        }
+    }
+
+    /**
+     * Report the end of a game to the duplicate results and the sequential
+     * test, if any, and stop the match once the test has decided.
+     *
+     * @param gameIndex
+     *            The number of the game
+     * @param g
+     *            The Game, which has just been played
+     */
+    private void gameEnded(long gameIndex, Game g)
+    {
+        int forfeiter = g.getForfeiter();
+        if (duplicateResults != null)
+        {
+            if (forfeiter >= 0)
+            {
+                duplicateResults.reportForfeit(gameIndex, forfeiter,
+                        g.getPointsWon());
+            }
+            else
+            {
+                duplicateResults.report(gameIndex, g.getWinner(),
+                        g.getPointsWon());
+            }
+        }
+        if (test != null && (forfeiter >= 0
+                ? test.reportForfeit(gameIndex, forfeiter)
+                : test.report(gameIndex, g.getWinner())))
+        {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Create the statistics of a share of the games of the match, which once
+     * played are added to the match statistics with merge().
+     *
+     * @return new statistics, or null if none are collected.
+     */
+    private MatchStatistics newStatistics()
+    {
+        return statistics == null ? null : new MatchStatistics(playerNames);
+    }
+
+    /**
+     * Create the decision latencies of a share of the games of the match,
+     * which once played are added to the match latencies with merge().
+     *
+     * @param sampleEvery
+     *            Time one decision in this many, or 0 to time none
+     * @return new latencies, or null if none are timed.
+     */
+    private DecisionLatencies newLatencies(int sampleEvery)
+    {
+        if (sampleEvery <= 0)
+        {
+            return null;
+        }
+        String[] strategies = new String[players.length];
+        for (int i = 0; i < players.length; i++)
+        {
+            strategies[i] = players[i].getClassName();
+        }
+        return new DecisionLatencies(strategies, sampleEvery);
+    }
+
+    /**
+     * Add the decision latencies of a share of the games of the match to the
+     * match latencies.
+     *
+     * @param partial
+     *            The latencies of the share, or null
+     */
+    private void merge(DecisionLatencies partial)
+    {
+        if (partial != null)
+        {
+            synchronized (latencies)
+            {
+                latencies.merge(partial);
+            }
+        }
+    }
+
+    /**
+     * Add the statistics of a share of the games of the match to the match
+     * statistics.
+     *
+     * @param partial
+     *            The statistics of the share, or null
+     */
+    private void merge(MatchStatistics partial)
+    {
+        if (partial != null)
+        {
+            synchronized (statistics)
+            {
+                statistics.merge(partial);
+            }
+        }
+    }
+
+    /**
+     * Play the whole match on the calling thread.
+     *
+     * @param numGames
+     *            The number of games to play.
+     * @return the Scoreboard holding the match totals.
+     */
+    public Scoreboard play(int numGames)
+    {
+        Scoreboard s = new ConcurrentScoreboard(playerNames, 1);
+        start(s);
+        playGames(s, new AtomicInteger(0), numGames);
+        return s;
+    }
+
+    /**
+     * Play the match on a pool of worker threads. Games are split into one
+     * contiguous range per worker (or, with a sequential test, taken one at a
+     * time in order), and each worker accumulates its results on a partial
+     * Scoreboard that is flushed into the returned one as it goes.
+     *
+     * @param numGames
+     *            The number of games to play.
+     * @param numThreads
+     *            The number of worker threads to use. A value of 1 (or less)
+     *            plays the match on the calling thread.
+     * @return the Scoreboard holding the match totals.
+     */
+    public Scoreboard play(int numGames, int numThreads)
+    {
+        if (dealProducers > 0 && !lazyShuffle && !duplicate && numGames > 0)
+        {
+            return playPipelined(numGames, Math.max(numThreads, 1));
+        }
+        if (numThreads <= 1 || numGames <= 1)
+        {
+            return play(numGames);
+        }
+        numThreads = Math.min(numThreads, numGames);
+        List<Worker> workers = new ArrayList<Worker>();
+        AtomicInteger shared = new AtomicInteger(0);
+        for (int t = 0; t < numThreads; t++)
+        {
+            if (test != null)
+            {
+                workers.add(new Worker(shared, numGames, null));
+                continue;
+            }
+            int first = (int) ((long) numGames * t / numThreads);
+            int last = (int) ((long) numGames * (t + 1) / numThreads);
+            workers.add(new Worker(new AtomicInteger(first), last, null));
+        }
+        return runWorkers(workers);
+    }
+
+    /**
+     * Play the match on a pool of worker threads fed by a DealPipeline. Each
+     * worker takes the next shuffled deck, whichever game it belongs to.
+     *
+     * @param numGames
+     *            The number of games to play.
+     * @param numThreads
+     *            The number of worker threads to use.
+     * @return the Scoreboard holding the match totals.
+     */
+    private Scoreboard playPipelined(int numGames, int numThreads)
+    {
+        numThreads = Math.min(numThreads, numGames);
+        DealPipeline pipeline = new DealPipeline(seed, numGames,
+                dealProducers, 4 * (numThreads + dealProducers));
+        try
+        {
+            List<Worker> workers = new ArrayList<Worker>();
+            for (int t = 0; t < numThreads; t++)
+            {
+                workers.add(new Worker(null, 0, pipeline));
+            }
+            return runWorkers(workers);
+        }
+        finally
+        {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Runs the workers of a match, one per thread, each of them flushing its
+     * partial Scoreboard into the match one.
+     *
+     * @param workers
+     *            The workers
+     * @return the Scoreboard holding the match totals.
+     */
+    private Scoreboard runWorkers(List<Worker> workers)
+    {
+        ConcurrentScoreboard s = new ConcurrentScoreboard(playerNames);
+        start(s);
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+        List<Future<Scoreboard>> partials =
+                new ArrayList<Future<Scoreboard>>();
+        try
+        {
+            for (Worker w : workers)
+            {
+                w.total = s;
+                partials.add(pool.submit(w));
+            }
+            for (Future<Scoreboard> partial : partials)
+            {
+                partial.get();
+            }
+            return s;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Match interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("A game of the match failed.",
+                    e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Play the match with one task per game, each on its own virtual thread,
+     * so that a strategy blocked in I/O parks cheaply instead of holding on to
+     * a platform thread. No more than maxConcurrent games are in flight at any
+     * time. On a JVM without virtual threads, the games run on a pool of (at
+     * most maxConcurrent) platform threads instead.
+     *
+     * @param numGames
+     *            The number of games to play.
+     * @param maxConcurrent
+     *            The maximum number of games in flight at once.
+     * @return the Scoreboard holding the match totals.
+     */
+    public Scoreboard playEachOnOwnThread(int numGames, int maxConcurrent)
+    {
+        ConcurrentScoreboard s = new ConcurrentScoreboard(playerNames);
+        start(s);
+        Semaphore inFlight = new Semaphore(maxConcurrent);
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        ExecutorService executor = newGameExecutor();
+        try
+        {
+            for (int i = 0; i < numGames && failure.get() == null
+                    && !stopped; i++)
+            {
+                inFlight.acquire();
+                executor.execute(new GameTask(i, s, inFlight, failure));
+            }
+            inFlight.acquire(maxConcurrent);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Match interrupted.", e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        if (failure.get() != null)
+        {
+            throw new IllegalStateException("A game of the match failed.",
+                    failure.get());
+        }
+        return s;
+    }
+
+    /**
+     * Creates the executor for playEachOnOwnThread(). Virtual threads are
+     * looked up reflectively so that the simulator still runs on JVMs that
+     * predate them.
+     *
+     * @return an executor starting a new (preferably virtual) thread per task.
+     */
+    private static ExecutorService newGameExecutor()
+    {
+        try
+        {
+            Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (Exception e)
+        {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Plays the games numbered from next (which is advanced as each game is
+     * taken, and may be shared with other threads) up to last (exclusive), or
+     * until the match is stopped, all on the same Game object, which is reset
+     * between games.
+     *
+     * @param s
+     *            The Scoreboard on which the results are recorded
+     * @param next
+     *            The number of the next game to play
+     * @param last
+     *            One past the number of the last game to play
+     */
+    private void playGames(Scoreboard s, AtomicInteger next, int last)
+    {
+        GameLog log = NullGameLog.INSTANCE;
+        if (printVerbose)
+        {
+            log = new PrintGameLog(System.out);
+        }
+        Game g = null;
+        MatchStatistics partial = newStatistics();
+        DecisionLatencies times = newLatencies(latencies == null ? 0
+                : latencySampling);
+        int n = playerNames.length;
+        int i;
+        while (!stopped && (i = next.getAndIncrement()) < last)
+        {
+            long gameSeed = SplitRandom.gameSeed(seed, duplicate ? i / n : i);
+            if (g == null)
+            {
+                Deck deck = new Deck(new SplitRandom(gameSeed), lazyShuffle);
+                g = new Game(s, players, log, deck);
+                g.setStatistics(partial);
+                g.setLatencies(times);
+                g.setTimeBudget(budget);
+                if (duplicate && i % n != 0)
+                {
+                    g.reset(gameSeed, i % n);
+                }
+            }
+            else if (duplicate)
+            {
+                g.reset(gameSeed, i % n);
+            }
+            else
+            {
+                g.reset(gameSeed);
+            }
+            g.play();
+            gameEnded(i, g);
+        }
+        merge(partial);
+        merge(times);
+    }
+
+    /**
+     * Plays the games whose decks come out of a pipeline, until there are none
+     * left, all on the same Game object.
+     *
+     * @param s
+     *            The Scoreboard on which the results are recorded
+     * @param pipeline
+     *            The pipeline
+     * @throws InterruptedException
+     *             if interrupted while waiting for a deck.
+     */
+    private void playDealtGames(Scoreboard s, DealPipeline pipeline)
+        throws InterruptedException
+    {
+        DealPipeline.Deal deal = pipeline.take();
+        if (deal == null)
+        {
+            return;
+        }
+        GameLog log = NullGameLog.INSTANCE;
+        if (printVerbose)
+        {
+            log = new PrintGameLog(System.out);
+        }
+        Game g = new Game(s, players, log, new Deck(new SplitRandom(0)));
+        MatchStatistics partial = newStatistics();
+        g.setStatistics(partial);
+        DecisionLatencies times = newLatencies(latencies == null ? 0
+                : latencySampling);
+        g.setLatencies(times);
+        g.setTimeBudget(budget);
+        while (deal != null)
+        {
+            long gameIndex = deal.getGameIndex();
+            g.reset(deal);
+            pipeline.recycle(deal);
+            g.play();
+            gameEnded(gameIndex, g);
+            deal = stopped ? null : pipeline.take();
+        }
+        merge(partial);
+        merge(times);
+    }
+
+    /**
+     * A unit of work of a parallel match: a contiguous range of games (or the
+     * games coming out of a pipeline) played against a partial Scoreboard.
+     */
+    private class Worker implements Callable<Scoreboard>
+    {
+        private AtomicInteger next;
+        private int last;
+        private DealPipeline pipeline;
+        private ConcurrentScoreboard total;
+
+        /**
+         * @param next
+         *            The number of the next game to play, which may be shared
+         *            with other workers
+         * @param last
+         *            One past the number of the last game to play
+         * @param pipeline
+         *            The pipeline to take the games from instead, or null
+         */
+        Worker(AtomicInteger next, int last, DealPipeline pipeline)
+        {
+            this.next = next;
+            this.last = last;
+            this.pipeline = pipeline;
+        }
+
+        /**
+         * @return the partial Scoreboard of this worker's games.
+         * @throws InterruptedException
+         *             if interrupted while waiting for a deck.
+         */
+        public Scoreboard call() throws InterruptedException
+        {
+            ConcurrentScoreboard.Local s = total.newLocal(FLUSH_EVERY);
+            if (pipeline != null)
+            {
+                playDealtGames(s, pipeline);
+            }
+            else
+            {
+                playGames(s, next, last);
+            }
+            s.flush();
+            return s;
+        }
+    }
+
+    /**
+     * A single game of a match played with one thread per game. The game is
+     * scored on its own Scoreboard, which is then flushed into the match one.
+     */
+    private class GameTask implements Runnable
+    {
+        private int gameIndex;
+        private ConcurrentScoreboard total;
+        private Semaphore inFlight;
+        private AtomicReference<Throwable> failure;
+
+        /**
+         * @param gameIndex
+         *            The number of the game to play
+         * @param total
+         *            The match Scoreboard
+         * @param inFlight
+         *            The permits bounding the games in flight; one is released
+         *            when this game is done
+         * @param failure
+         *            Where to record the first game that fails
+         */
+        GameTask(int gameIndex, ConcurrentScoreboard total, Semaphore inFlight,
+                AtomicReference<Throwable> failure)
+        {
+            this.gameIndex = gameIndex;
+            this.total = total;
+            this.inFlight = inFlight;
+            this.failure = failure;
+        }
+
+        /**
+         * Play the game and flush its score.
+         */
+        public void run()
+        {
+            try
+            {
+                ConcurrentScoreboard.Local s = total.newLocal(FLUSH_EVERY);
+                playGames(s, new AtomicInteger(gameIndex), gameIndex + 1);
+                s.flush();
+            }
+            catch (Throwable t)
+            {
+                failure.compareAndSet(null, t);
+            }
+            finally
+            {
+                inFlight.release();
+            }
+        }
+    }
+}
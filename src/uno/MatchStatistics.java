@@ -0,0 +1,533 @@
+package uno;
+
+/**
+ * <p>
+ * A MatchStatistics collects statistics over the games of a match as they are
+ * played, in constant memory however many games there are: the wins of each
+ * player (with confidence intervals on their win rates), the points of each
+ * win, the length of each game in turns, the cards drawn and the remixes of
+ * the deck. A Game fed a MatchStatistics (see Game.setStatistics()) records
+ * itself in it when it ends.
+ * </p>
+ * <p>
+ * A MatchStatistics is not thread-safe. Each thread of a parallel match keeps
+ * its own, and they are merge()d at the end.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class MatchStatistics
+{
+
+    /**
+     * The z value of a 95% confidence interval.
+     */
+    public static final double Z_95 = 1.959964;
+
+    private String[] playerNames;
+    private long numGames;
+    private long numDrawnGames;
+    private long numForfeitedGames;
+    private long[] wins;
+    private long[] forfeits;
+    private RunningStat[] pointsPerWin;
+    private RunningStat turns = new RunningStat();
+    private RunningStat cardsDrawn = new RunningStat();
+    private RunningStat remixes = new RunningStat();
+    private Histogram turnHistogram = new Histogram(10, 30);
+    private Histogram pointHistogram = new Histogram(25, 20);
+
+    /**
+     * Instantiate an empty MatchStatistics.
+     * 
+     * @param playerNames
+     *            The names of the players, in seating order
+     */
+    public MatchStatistics(String[] playerNames)
+    {
+        this.playerNames = playerNames;
+        wins = new long[playerNames.length];
+        forfeits = new long[playerNames.length];
+        pointsPerWin = new RunningStat[playerNames.length];
+        for (int i = 0; i < pointsPerWin.length; i++)
+        {
+            pointsPerWin[i] = new RunningStat();
+        }
+    }
+
+    /**
+     * Record a game that was won.
+     * 
+     * @param winner
+     *            The zero-based number of the winner
+     * @param points
+     *            The points of the win
+     * @param numTurns
+     *            The number of turns of the game
+     * @param numCardsDrawn
+     *            The number of cards drawn from the deck after the deal
+     * @param numRemixes
+     *            The number of times the deck was remixed
+     */
+    public void gameWon(int winner, int points, int numTurns,
+            int numCardsDrawn, int numRemixes)
+    {
+        wins[winner]++;
+        pointsPerWin[winner].add(points);
+        pointHistogram.add(points);
+        gameEnded(numTurns, numCardsDrawn, numRemixes);
+    }
+
+    /**
+     * Record a game that ended in a draw, the deck having run out.
+     * 
+     * @param numTurns
+     *            The number of turns of the game
+     * @param numCardsDrawn
+     *            The number of cards drawn from the deck after the deal
+     * @param numRemixes
+     *            The number of times the deck was remixed
+     */
+    public void gameDrawn(int numTurns, int numCardsDrawn, int numRemixes)
+    {
+        numDrawnGames++;
+        gameEnded(numTurns, numCardsDrawn, numRemixes);
+    }
+
+    /**
+     * Record a game that a player forfeited by running out of time (see
+     * TimeBudget): a loss for that player, and a win for nobody.
+     * 
+     * @param forfeiter
+     *            The zero-based number of the player who forfeited
+     * @param numTurns
+     *            The number of turns of the game
+     * @param numCardsDrawn
+     *            The number of cards drawn from the deck after the deal
+     * @param numRemixes
+     *            The number of times the deck was remixed
+     */
+    public void gameForfeited(int forfeiter, int numTurns, int numCardsDrawn,
+            int numRemixes)
+    {
+        numForfeitedGames++;
+        forfeits[forfeiter]++;
+        gameEnded(numTurns, numCardsDrawn, numRemixes);
+    }
+
+    /**
+     * Record what every game has.
+     * 
+     * @param numTurns
+     *            The number of turns of the game
+     * @param numCardsDrawn
+     *            The number of cards drawn from the deck after the deal
+     * @param numRemixes
+     *            The number of times the deck was remixed
+     */
+    private void gameEnded(int numTurns, int numCardsDrawn, int numRemixes)
+    {
+        numGames++;
+        turns.add(numTurns);
+        turnHistogram.add(numTurns);
+        cardsDrawn.add(numCardsDrawn);
+        remixes.add(numRemixes);
+    }
+
+    /**
+     * Add the games recorded by another MatchStatistics to this one.
+     * 
+     * @param other
+     *            The statistics of other games between the same players
+     */
+    public void merge(MatchStatistics other)
+    {
+        numGames += other.numGames;
+        numDrawnGames += other.numDrawnGames;
+        numForfeitedGames += other.numForfeitedGames;
+        for (int i = 0; i < wins.length; i++)
+        {
+            wins[i] += other.wins[i];
+            forfeits[i] += other.forfeits[i];
+            pointsPerWin[i].merge(other.pointsPerWin[i]);
+        }
+        turns.merge(other.turns);
+        cardsDrawn.merge(other.cardsDrawn);
+        remixes.merge(other.remixes);
+        turnHistogram.merge(other.turnHistogram);
+        pointHistogram.merge(other.pointHistogram);
+    }
+
+    /**
+     * @return the number of games recorded.
+     */
+    public long getNumGames()
+    {
+        return numGames;
+    }
+
+    /**
+     * @return the number of games that ended in a draw.
+     */
+    public long getNumDrawnGames()
+    {
+        return numDrawnGames;
+    }
+
+    /**
+     * @return the number of games that a player forfeited.
+     */
+    public long getNumForfeitedGames()
+    {
+        return numForfeitedGames;
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of a player
+     * @return the number of games the player forfeited.
+     */
+    public long getForfeits(int player)
+    {
+        return forfeits[player];
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of a player
+     * @return the number of games the player won.
+     */
+    public long getWins(int player)
+    {
+        return wins[player];
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of a player
+     * @return the fraction of all games (drawn and forfeited ones included)
+     *         the player won.
+     */
+    public double getWinRate(int player)
+    {
+        return numGames == 0 ? 0 : (double) wins[player] / numGames;
+    }
+
+    /**
+     * Compute the Wilson score interval of a player's win rate, which unlike
+     * the usual normal approximation stays within [0, 1] and behaves with few
+     * games or extreme rates.
+     * 
+     * @param player
+     *            The zero-based number of a player
+     * @param z
+     *            The number of standard deviations of the interval (Z_95 for
+     *            a 95% confidence interval)
+     * @return the lower and upper bounds of the interval.
+     */
+    public double[] getWinRateInterval(int player, double z)
+    {
+        if (numGames == 0)
+        {
+            return new double[] { 0, 1 };
+        }
+        double n = numGames;
+        double p = wins[player] / n;
+        double z2 = z * z;
+        double denominator = 1 + z2 / n;
+        double centre = (p + z2 / (2 * n)) / denominator;
+        double halfWidth = z * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n))
+                / denominator;
+        return new double[] { Math.max(0, centre - halfWidth),
+                Math.min(1, centre + halfWidth) };
+    }
+
+    /**
+     * @param player
+     *            The zero-based number of a player
+     * @return the points of the player's wins.
+     */
+    public RunningStat getPointsPerWin(int player)
+    {
+        return pointsPerWin[player];
+    }
+
+    /**
+     * @return the number of turns per game.
+     */
+    public RunningStat getTurns()
+    {
+        return turns;
+    }
+
+    /**
+     * @return the number of cards drawn per game, after the deal.
+     */
+    public RunningStat getCardsDrawn()
+    {
+        return cardsDrawn;
+    }
+
+    /**
+     * @return the number of remixes per game.
+     */
+    public RunningStat getRemixes()
+    {
+        return remixes;
+    }
+
+    /**
+     * @return the histogram of the number of turns per game.
+     */
+    public Histogram getTurnHistogram()
+    {
+        return turnHistogram;
+    }
+
+    /**
+     * @return the histogram of the points per win, all players together.
+     */
+    public Histogram getPointHistogram()
+    {
+        return pointHistogram;
+    }
+
+    /**
+     * Render the statistics as a report.
+     * 
+     * @return the report text
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games: %d (%d drawn, %d forfeited)%n",
+                numGames, numDrawnGames, numForfeitedGames));
+        sb.append(String.format("%-10s  %8s  %8s  %-17s  %s%n", "Player",
+                "Wins", "Forfeits", "Win rate (95% CI)", "Points per win"));
+        for (int i = 0; i < wins.length; i++)
+        {
+            double[] ci = getWinRateInterval(i, Z_95);
+            sb.append(String.format("%-10s  %8d  %8d  %5.3f [%5.3f,%5.3f]  "
+                    + "%s%n", playerNames[i], wins[i], forfeits[i],
+                    getWinRate(i), ci[0], ci[1], pointsPerWin[i]));
+        }
+        sb.append("Turns per game: ").append(turns).append('\n');
+        sb.append("Cards drawn per game: ").append(cardsDrawn).append('\n');
+        sb.append("Remixes per game: ").append(remixes).append('\n');
+        sb.append("Game lengths, in turns:\n").append(turnHistogram);
+        sb.append("Points of the wins:\n").append(pointHistogram);
+        return sb.toString();
+    }
+
+    /**
+     * The count, mean, variance and range of a series of values, updated one
+     * value at a time (Welford's method) and mergeable (Chan's formula).
+     */
+    public static class RunningStat
+    {
+        private long count;
+        private double mean;
+        private double m2;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        /**
+         * Add a value to the series.
+         * 
+         * @param x
+         *            The value
+         */
+        public void add(double x)
+        {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+            min = Math.min(min, x);
+            max = Math.max(max, x);
+        }
+
+        /**
+         * Add all the values of another series to this one.
+         * 
+         * @param other
+         *            The other series
+         */
+        public void merge(RunningStat other)
+        {
+            if (other.count == 0)
+            {
+                return;
+            }
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * count * other.count / total;
+            count = total;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * @return the number of values.
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * @return the mean of the values.
+         */
+        public double getMean()
+        {
+            return mean;
+        }
+
+        /**
+         * @return the sample variance of the values.
+         */
+        public double getVariance()
+        {
+            return count < 2 ? 0 : m2 / (count - 1);
+        }
+
+        /**
+         * @return the sample standard deviation of the values.
+         */
+        public double getStandardDeviation()
+        {
+            return Math.sqrt(getVariance());
+        }
+
+        /**
+         * @return the smallest value.
+         */
+        public double getMin()
+        {
+            return min;
+        }
+
+        /**
+         * @return the largest value.
+         */
+        public double getMax()
+        {
+            return max;
+        }
+
+        /**
+         * @return the mean, standard deviation and range, for display.
+         */
+        public String toString()
+        {
+            if (count == 0)
+            {
+                return "-";
+            }
+            return String.format("mean %.2f, sd %.2f, range %.0f-%.0f", mean,
+                    getStandardDeviation(), min, max);
+        }
+    }
+
+    /**
+     * A histogram of non-negative values, in buckets of equal width, the last
+     * of which also counts every larger value.
+     */
+    public static class Histogram
+    {
+        private int bucketWidth;
+        private long[] counts;
+
+        /**
+         * @param bucketWidth
+         *            The width of each bucket
+         * @param numBuckets
+         *            The number of buckets
+         */
+        public Histogram(int bucketWidth, int numBuckets)
+        {
+            this.bucketWidth = bucketWidth;
+            counts = new long[numBuckets];
+        }
+
+        /**
+         * Count a value.
+         * 
+         * @param x
+         *            The value
+         */
+        public void add(long x)
+        {
+            counts[(int) Math.min(Math.max(x, 0) / bucketWidth,
+                    counts.length - 1)]++;
+        }
+
+        /**
+         * Add all the counts of another histogram, with the same buckets.
+         * 
+         * @param other
+         *            The other histogram
+         */
+        public void merge(Histogram other)
+        {
+            for (int i = 0; i < counts.length; i++)
+            {
+                counts[i] += other.counts[i];
+            }
+        }
+
+        /**
+         * @param bucket
+         *            The number of a bucket
+         * @return the number of values counted in it.
+         */
+        public long getCount(int bucket)
+        {
+            return counts[bucket];
+        }
+
+        /**
+         * @return the number of buckets.
+         */
+        public int getNumBuckets()
+        {
+            return counts.length;
+        }
+
+        /**
+         * @return the width of each bucket.
+         */
+        public int getBucketWidth()
+        {
+            return bucketWidth;
+        }
+
+        /**
+         * @return one line per non-empty bucket, with its share of the values.
+         */
+        public String toString()
+        {
+            long total = 0;
+            for (long c : counts)
+            {
+                total += c;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < counts.length; i++)
+            {
+                if (counts[i] == 0)
+                {
+                    continue;
+                }
+                String range = i == counts.length - 1 ? (i * bucketWidth)
+                        + "+" : i * bucketWidth + "-"
+                        + ((i + 1) * bucketWidth - 1);
+                sb.append(String.format("  %9s  %9d  %5.1f%%%n", range,
+                        counts[i], 100.0 * counts[i] / total));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package uno;
+
+/**
+ * A GameLog that ignores every event, used for quiet games.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class NullGameLog implements GameLog
+{
+
+    /**
+     * The single, stateless instance.
+     */
+    public static final NullGameLog INSTANCE = new NullGameLog();
+
+    /**
+     * Use INSTANCE instead.
+     */
+    private NullGameLog()
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param upCard
+     *            ignored
+     */
+    public void gameStarted(Card upCard)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     */
+    public void turnStarted(Hand hand)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param card
+     *            ignored
+     */
+    public void cardDrawn(Hand hand, Card card)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param card
+     *            ignored
+     * @param upCard
+     *            ignored
+     */
+    public void cardPlayed(Hand hand, Card card, Card upCard)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param color
+     *            ignored
+     */
+    public void colorCalled(Hand hand, UnoPlayer.Color color)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param card
+     *            ignored
+     */
+    public void penaltyDrawn(Hand hand, Card card)
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    public void deckRemixed()
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     */
+    public void uno(Hand hand)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     */
+    public void turnEnded(Hand hand)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param allowedNanos
+     *            ignored
+     */
+    public void timeExceeded(Hand hand, long allowedNanos)
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param points
+     *            ignored
+     * @param scoreboard
+     *            ignored
+     */
+    public void gameWon(Hand hand, int points, Scoreboard scoreboard)
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    public void gameDrawn()
+    {
+    }
+
+    /**
+     * Does nothing.
+     * 
+     * @param hand
+     *            ignored
+     * @param points
+     *            ignored
+     * @param scoreboard
+     *            ignored
+     */
+    public void gameForfeited(Hand hand, int points, Scoreboard scoreboard)
+    {
+    }
+
+    /**
+     * Does nothing.
+     */
+    public void gameEnded()
+    {
+    }
+}
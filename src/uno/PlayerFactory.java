@@ -0,0 +1,181 @@
+package uno;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+/**
+ * <p>
+ * A PlayerFactory creates the UnoPlayer strategy objects of one seat of a
+ * match. The strategy class is looked up, and its no-argument constructor
+ * resolved, once, when the factory is built; each new player is then a plain
+ * constructor call rather than a reflective lookup.
+ * </p>
+ * <p>
+ * How often new players are created depends on the factory's Policy. Many
+ * strategies keep state in instance fields, so by default every Game gets
+ * fresh instances (PER_GAME). A strategy that is known to be safe to reuse
+ * from one game to the next can be created once per thread instead
+ * (PER_THREAD); an instance is then never shared between two threads, nor
+ * between two seats.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class PlayerFactory
+{
+
+    /**
+     * How long a player created by a factory lives.
+     */
+    public enum Policy
+    {
+        PER_GAME, PER_THREAD
+    }
+
+    private String className;
+    private Policy policy;
+    private MethodHandle constructor;
+    private ThreadLocal<UnoPlayer> threadPlayer;
+
+    /**
+     * Instantiate a factory of players of the given class.
+     * 
+     * @param className
+     *            The fully-qualified name of a class that implements the
+     *            UnoPlayer interface and has a public no-argument constructor
+     * @param policy
+     *            How long each player lives
+     * @throws RuntimeException
+     *             if the class cannot be loaded or instantiated.
+     */
+    public PlayerFactory(String className, Policy policy)
+    {
+        this.className = className;
+        this.policy = policy;
+        try
+        {
+            Class<?> playerClass = Class.forName(className);
+            constructor = MethodHandles.publicLookup()
+                .findConstructor(playerClass,
+                    MethodType.methodType(void.class))
+                .asType(MethodType.methodType(UnoPlayer.class));
+        }
+        catch (Exception e)
+        {
+            throw problem(e);
+        }
+        if (policy == Policy.PER_THREAD)
+        {
+            threadPlayer = new ThreadLocal<UnoPlayer>();
+        }
+    }
+
+    /**
+     * Build one factory per class name.
+     * 
+     * @param classNames
+     *            The fully-qualified class names, one per seat
+     * @param policy
+     *            How long each player lives
+     * @return the factories, in the same order.
+     */
+    public static PlayerFactory[] forClassNames(List<String> classNames,
+        Policy policy)
+    {
+        PlayerFactory[] factories = new PlayerFactory[classNames.size()];
+        for (int i = 0; i < factories.length; i++)
+        {
+            factories[i] = new PlayerFactory(classNames.get(i), policy);
+        }
+        return factories;
+    }
+
+    /**
+     * Get a player for a new game, as per the factory's policy.
+     * 
+     * @return a new player, or (PER_THREAD) the calling thread's player.
+     */
+    public UnoPlayer newPlayer()
+    {
+        if (threadPlayer == null)
+        {
+            return createPlayer();
+        }
+        UnoPlayer player = threadPlayer.get();
+        if (player == null)
+        {
+            player = createPlayer();
+            threadPlayer.set(player);
+        }
+        return player;
+    }
+
+    /**
+     * Get a new player in place of one that was abandoned because it ran out
+     * of time (see TimeBudget), and may still be running on another thread.
+     * Under PER_THREAD, the new player also replaces the calling thread's
+     * player for the next games.
+     * 
+     * @return a new player.
+     */
+    public UnoPlayer replacePlayer()
+    {
+        UnoPlayer player = createPlayer();
+        if (threadPlayer != null)
+        {
+            threadPlayer.set(player);
+        }
+        return player;
+    }
+
+    /**
+     * @return a new instance of the strategy class.
+     */
+    private UnoPlayer createPlayer()
+    {
+        try
+        {
+            return (UnoPlayer) constructor.invokeExact();
+        }
+        catch (Throwable t)
+        {
+            throw problem(t);
+        }
+    }
+
+    /**
+     * Wraps a failure to create a player.
+     * 
+     * @param t
+     *            The cause
+     * @return the exception to throw.
+     */
+    private RuntimeException problem(Throwable t)
+    {
+        StringWriter errors = new StringWriter();
+        t.printStackTrace(new PrintWriter(errors));
+        return new RuntimeException("Problem with " + className + ".\n"
+            + errors);
+    }
+
+    /**
+     * @return the name of the strategy class.
+     */
+    public String getClassName()
+    {
+        return className;
+    }
+
+    /**
+     * @return how long each player lives.
+     */
+    public Policy getPolicy()
+    {
+        return policy;
+    }
+}
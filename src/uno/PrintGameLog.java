@@ -0,0 +1,209 @@
+package uno;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * A GameLog narrating the game in text, one line per turn. The text is
+ * written to a buffer that is only flushed to the underlying stream at the end
+ * of the game, so a whole game reaches the stream in one piece.
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class PrintGameLog implements GameLog
+{
+
+    private PrintWriter out;
+
+    /**
+     * Instantiate a log narrating to a stream.
+     * 
+     * @param stream
+     *            The stream to write to, usually System.out
+     */
+    public PrintGameLog(OutputStream stream)
+    {
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                stream)));
+    }
+
+    /**
+     * Prints the initial up card.
+     * 
+     * @param upCard
+     *            The initial up card
+     */
+    public void gameStarted(Card upCard)
+    {
+        out.println("Initial upcard is " + upCard + ".");
+    }
+
+    /**
+     * Prints the player's name and hand.
+     * 
+     * @param hand
+     *            The hand of the player whose turn it is
+     */
+    public void turnStarted(Hand hand)
+    {
+        out.print(hand.getPlayerName());
+        out.print(" (");
+        out.print(hand);
+        out.print(")");
+    }
+
+    /**
+     * Prints the card drawn.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param card
+     *            The card drawn
+     */
+    public void cardDrawn(Hand hand, Card card)
+    {
+        out.print(" has to draw (" + card + ").");
+    }
+
+    /**
+     * Prints the card played.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param card
+     *            The card played
+     * @param upCard
+     *            The up card it was played on
+     */
+    public void cardPlayed(Hand hand, Card card, Card upCard)
+    {
+        out.print(" plays " + card + " on " + upCard + ".");
+    }
+
+    /**
+     * Prints the color called.
+     * 
+     * @param hand
+     *            The hand of the current player
+     * @param color
+     *            The color called
+     */
+    public void colorCalled(Hand hand, UnoPlayer.Color color)
+    {
+        out.print(" (and calls " + color + ").");
+    }
+
+    /**
+     * Prints the card drawn, on a line of its own.
+     * 
+     * @param hand
+     *            The hand of the player drawing
+     * @param card
+     *            The card drawn
+     */
+    public void penaltyDrawn(Hand hand, Card card)
+    {
+        out.println("  " + hand.getPlayerName() + " draws " + card + ".");
+    }
+
+    /**
+     * Prints that the deck was remixed.
+     */
+    public void deckRemixed()
+    {
+        out.print("...deck exhausted, remixing...");
+    }
+
+    /**
+     * Prints the Uno call.
+     * 
+     * @param hand
+     *            The hand of the current player
+     */
+    public void uno(Hand hand)
+    {
+        out.print(" UNO!");
+    }
+
+    /**
+     * Ends the line of the turn.
+     * 
+     * @param hand
+     *            The hand of the current player
+     */
+    public void turnEnded(Hand hand)
+    {
+        out.println();
+    }
+
+    /**
+     * Prints that a player ran out of time, on a line of its own.
+     * 
+     * @param hand
+     *            The hand of the player
+     * @param allowedNanos
+     *            The time the decision was given, in nanoseconds
+     */
+    public void timeExceeded(Hand hand, long allowedNanos)
+    {
+        out.println("  " + hand.getPlayerName() + " ran out of time ("
+                + Math.max(allowedNanos, 0) / 1000000.0 + " ms).");
+    }
+
+    /**
+     * Prints the winner and the Scoreboard.
+     * 
+     * @param hand
+     *            The hand of the winner
+     * @param points
+     *            The points the winner collects
+     * @param scoreboard
+     *            The Scoreboard, once the points have been added
+     */
+    public void gameWon(Hand hand, int points, Scoreboard scoreboard)
+    {
+        out.println();
+        out.println(hand.getPlayerName() + " wins! (and collects " + points
+                + " points.)");
+        out.println("---------------");
+        out.println(scoreboard);
+    }
+
+    /**
+     * Prints that the deck is exhausted.
+     */
+    public void gameDrawn()
+    {
+        out.println("Deck exhausted! This game is a draw.");
+    }
+
+    /**
+     * Prints the player who forfeited and the Scoreboard.
+     * 
+     * @param hand
+     *            The hand of the player who forfeited
+     * @param points
+     *            The points each other player collects
+     * @param scoreboard
+     *            The Scoreboard, once the points have been added
+     */
+    public void gameForfeited(Hand hand, int points, Scoreboard scoreboard)
+    {
+        out.println();
+        out.println(hand.getPlayerName() + " forfeits! (the others collect "
+                + points + " points each.)");
+        out.println("---------------");
+        out.println(scoreboard);
+    }
+
+    /**
+     * Flushes the game's text to the stream.
+     */
+    public void gameEnded()
+    {
+        out.flush();
+    }
+}
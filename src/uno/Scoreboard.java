@@ -1,5 +1,7 @@
 package uno;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * A Scoreboard is a simple container for player names and their current scores.
@@ -45,6 +47,30 @@ public class Scoreboard
         scores[player] += points;
     }
 
+    /**
+     * Add all the scores of another Scoreboard to this one. Used to merge the
+     * partial Scoreboards of a match that was split across several threads.
+     * 
+     * @param other
+     *            A Scoreboard for the same players, in the same order.
+     */
+    public void addScores(Scoreboard other)
+    {
+        int[] otherScores = other.snapshot();
+        for (int i = 0; i < scores.length; i++)
+        {
+            scores[i] += otherScores[i];
+        }
+    }
+
+    /**
+     * Set every player's score back to zero.
+     */
+    public void reset()
+    {
+        Arrays.fill(scores, 0);
+    }
+
     /**
      * Obtain the score of a particular player.
      * 
@@ -57,6 +83,30 @@ public class Scoreboard
         return scores[player];
     }
 
+    /**
+     * Obtain a copy of every player's score, taken at one point in time.
+     * 
+     * @return a new array of the scores, ordered by player number.
+     */
+    public int[] snapshot()
+    {
+        return snapshot(new int[getNumPlayers()]);
+    }
+
+    /**
+     * Obtain a copy of every player's score, taken at one point in time,
+     * without allocating.
+     * 
+     * @param dst
+     *            The array to fill, at least getNumPlayers() long
+     * @return dst.
+     */
+    public int[] snapshot(int[] dst)
+    {
+        System.arraycopy(scores, 0, dst, 0, scores.length);
+        return dst;
+    }
+
     /**
      * Render the Scoreboard as a string for display during game play.
      * 
@@ -65,14 +115,26 @@ public class Scoreboard
     public String toString()
     {
         String retval = "";
-        for (int i = 0; i < scores.length; i++)
+        int[] current = snapshot();
+        for (int i = 0; i < current.length; i++)
         {
             retval += String.format("%-10s", playerList[i]) + ": "
-                    + scores[i] + "\n";
+                    + current[i] + "\n";
         }
         return retval;
     }
 
+    /**
+     * Get the standings this Scoreboard's points count towards, which is what
+     * the players of a game see (see GameState.getTotalScoreOfPlayers()).
+     * 
+     * @return this Scoreboard.
+     */
+    public Scoreboard getStandings()
+    {
+        return this;
+    }
+
     /**
      * @return the list of player names.
      */
@@ -98,14 +160,15 @@ public class Scoreboard
      */
     public int getWinner()
     {
+        int[] current = snapshot();
         int winner = 0;
-        int topScore = scores[0];
+        int topScore = current[0];
 
-        for (int i = 1; i < scores.length; i++)
+        for (int i = 1; i < current.length; i++)
         {
-            if (scores[i] > topScore)
+            if (current[i] > topScore)
             {
-                topScore = scores[i];
+                topScore = current[i];
                 winner = i;
             }
         }
@@ -0,0 +1,264 @@
+package uno;
+
+/**
+ * <p>
+ * A sequential probability ratio test (SPRT) on the win rate of one player of
+ * a match, which decides, as the games come in, between H0: "the player wins
+ * a fraction p0 of the games" and H1: "the player wins a fraction p1 of the
+ * games", with error rates alpha (accepting H1 when H0 holds) and beta
+ * (accepting H0 when H1 holds). Rates between p0 and p1 are the indifference
+ * region, where either answer will do. A clear difference is usually settled
+ * after far fewer games than a fixed-size match would play.
+ * </p>
+ * <p>
+ * A Match given a SequentialTest (see Match.setSequentialTest()) reports the
+ * winner of every game to it, and stops once it has decided. Games are fed
+ * to the test in the order of their numbers, whatever the order the workers
+ * of a parallel match finish them in: results that arrive early wait in a
+ * reorder buffer for the games before them. So for a given seed the decision,
+ * and the number of games it took, do not depend on the number of threads.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class SequentialTest
+{
+
+    /**
+     * The state of the test.
+     */
+    public enum Decision
+    {
+        CONTINUE, ACCEPT_H0, ACCEPT_H1
+    };
+
+    private int player;
+    private double p0;
+    private double p1;
+    private double alpha;
+    private double beta;
+    private double winStep;
+    private double lossStep;
+    private double lowerBound;
+    private double upperBound;
+
+    private double llr;
+    private long numGames;
+    private long numWins;
+    private Decision decision;
+
+    /**
+     * The results of the games that came in ahead of their turn, by game
+     * number modulo its length: the winner plus 2 (1 for a drawn game), or 0
+     * for a game whose result has not come in.
+     */
+    private byte[] pending = new byte[64];
+
+    /**
+     * Instantiate a test.
+     * 
+     * @param player
+     *            The zero-based number of the player whose win rate is tested
+     * @param p0
+     *            The win rate under H0
+     * @param p1
+     *            The win rate under H1, different from p0
+     * @param alpha
+     *            The probability of accepting H1 when H0 holds
+     * @param beta
+     *            The probability of accepting H0 when H1 holds
+     */
+    public SequentialTest(int player, double p0, double p1, double alpha,
+            double beta)
+    {
+        if (p0 <= 0 || p0 >= 1 || p1 <= 0 || p1 >= 1 || p0 == p1)
+        {
+            throw new IllegalArgumentException("Win rates must be distinct "
+                    + "and strictly between 0 and 1.");
+        }
+        if (alpha <= 0 || beta <= 0 || alpha + beta >= 1)
+        {
+            throw new IllegalArgumentException("Invalid error rates.");
+        }
+        this.player = player;
+        this.p0 = p0;
+        this.p1 = p1;
+        this.alpha = alpha;
+        this.beta = beta;
+        winStep = Math.log(p1 / p0);
+        lossStep = Math.log((1 - p1) / (1 - p0));
+        lowerBound = Math.log(beta / (1 - alpha));
+        upperBound = Math.log((1 - beta) / alpha);
+        reset();
+    }
+
+    /**
+     * Forget every result, to test another match.
+     */
+    public synchronized void reset()
+    {
+        llr = 0;
+        numGames = 0;
+        numWins = 0;
+        decision = Decision.CONTINUE;
+        pending = new byte[pending.length];
+    }
+
+    /**
+     * Report the result of a game, in any order. Every game from number 0 on
+     * must be reported, until the test has decided.
+     * 
+     * @param gameIndex
+     *            The zero-based number of the game within the match
+     * @param winner
+     *            The zero-based number of the winner, or -1 for a drawn game
+     * @return true if the test has decided.
+     */
+    public synchronized boolean report(long gameIndex, int winner)
+    {
+        if (decision != Decision.CONTINUE || gameIndex < numGames)
+        {
+            return decision != Decision.CONTINUE;
+        }
+        while (gameIndex - numGames >= pending.length)
+        {
+            grow();
+        }
+        pending[(int) (gameIndex % pending.length)] = (byte) (winner + 2);
+        int slot = (int) (numGames % pending.length);
+        while (pending[slot] != 0 && decision == Decision.CONTINUE)
+        {
+            record(pending[slot] - 2);
+            pending[slot] = 0;
+            slot = (int) (numGames % pending.length);
+        }
+        return decision != Decision.CONTINUE;
+    }
+
+    /**
+     * Report a game that a player forfeited (see TimeBudget), in any order.
+     * The forfeit is a loss for the player who forfeited, and a win for the
+     * others, who share the game: so it counts as a win for the tested
+     * player unless it is the one who forfeited.
+     * 
+     * @param gameIndex
+     *            The zero-based number of the game within the match
+     * @param forfeiter
+     *            The zero-based number of the player who forfeited
+     * @return true if the test has decided.
+     */
+    public synchronized boolean reportForfeit(long gameIndex, int forfeiter)
+    {
+        return report(gameIndex, forfeiter == player ? -1 : player);
+    }
+
+    /**
+     * Doubles the reorder buffer.
+     */
+    private void grow()
+    {
+        byte[] larger = new byte[2 * pending.length];
+        for (long i = numGames; i < numGames + pending.length; i++)
+        {
+            larger[(int) (i % larger.length)] =
+                    pending[(int) (i % pending.length)];
+        }
+        pending = larger;
+    }
+
+    /**
+     * Feeds the result of the next game to the test.
+     * 
+     * @param winner
+     *            The zero-based number of the winner, or -1 for a drawn game
+     */
+    private void record(int winner)
+    {
+        numGames++;
+        if (winner == player)
+        {
+            numWins++;
+            llr += winStep;
+        }
+        else
+        {
+            llr += lossStep;
+        }
+        if (llr >= upperBound)
+        {
+            decision = Decision.ACCEPT_H1;
+        }
+        else if (llr <= lowerBound)
+        {
+            decision = Decision.ACCEPT_H0;
+        }
+    }
+
+    /**
+     * @return the decision of the test so far.
+     */
+    public synchronized Decision getDecision()
+    {
+        return decision;
+    }
+
+    /**
+     * @return the number of games fed to the test, in order: once it has
+     *         decided, the number of games the decision took.
+     */
+    public synchronized long getNumGames()
+    {
+        return numGames;
+    }
+
+    /**
+     * @return the number of those games won by the tested player.
+     */
+    public synchronized long getNumWins()
+    {
+        return numWins;
+    }
+
+    /**
+     * @return the log-likelihood ratio of H1 to H0 so far.
+     */
+    public synchronized double getLogLikelihoodRatio()
+    {
+        return llr;
+    }
+
+    /**
+     * @return the zero-based number of the player whose win rate is tested.
+     */
+    public int getPlayer()
+    {
+        return player;
+    }
+
+    /**
+     * Render the state of the test for display.
+     * 
+     * @return the test text
+     */
+    public synchronized String toString()
+    {
+        String outcome;
+        if (decision == Decision.ACCEPT_H1)
+        {
+            outcome = "accepted H1 (win rate " + p1 + ")";
+        }
+        else if (decision == Decision.ACCEPT_H0)
+        {
+            outcome = "accepted H0 (win rate " + p0 + ")";
+        }
+        else
+        {
+            outcome = "undecided";
+        }
+        return String.format("SPRT on the win rate of player %d, "
+                + "alpha %.3f, beta %.3f: %s after %d games "
+                + "(%d wins, LLR %.3f in [%.3f, %.3f])", player, alpha, beta,
+                outcome, numGames, numWins, llr, lowerBound, upperBound);
+    }
+}
@@ -0,0 +1,145 @@
+package uno;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * A small, fast, seedable random number generator (the SplitMix64 algorithm
+ * used by java.util.SplittableRandom), usable wherever a java.util.Random is
+ * expected. Unlike java.util.Random, an instance has no synchronized or atomic
+ * state, so it must not be shared between threads: each thread (or game)
+ * should get its own stream, either through split() or through forGame().
+ * </p>
+ * <p>
+ * A match has one master seed, and game number N of the match always uses the
+ * stream forGame(seed, N). That stream does not depend on which thread (or
+ * machine) plays the game, nor on the games played before it, so any game of
+ * any match can be replayed.
+ * </p>
+ *
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class SplitRandom extends Random
+{
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The odd increment of the generator (the golden ratio, in 64-bit fixed
+     * point).
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    /**
+     * Instantiate a generator with the given seed.
+     *
+     * @param seed
+     *            The initial seed. Two generators built from the same seed
+     *            produce the same sequence.
+     */
+    public SplitRandom(long seed)
+    {
+        super(0L);
+        state = seed;
+    }
+
+    /**
+     * Get the stream of a particular game of a match.
+     *
+     * @param matchSeed
+     *            The master seed of the match
+     * @param gameIndex
+     *            The zero-based number of the game within the match
+     * @return a new generator for that game, independent of every other game
+     *         of the match.
+     */
+    public static SplitRandom forGame(long matchSeed, long gameIndex)
+    {
+        return new SplitRandom(gameSeed(matchSeed, gameIndex));
+    }
+
+    /**
+     * Get the seed of a particular game of a match, for reseeding an existing
+     * generator (see Game.reset()) rather than building a new one.
+     *
+     * @param matchSeed
+     *            The master seed of the match
+     * @param gameIndex
+     *            The zero-based number of the game within the match
+     * @return the seed of the stream returned by forGame(matchSeed,
+     *         gameIndex).
+     */
+    public static long gameSeed(long matchSeed, long gameIndex)
+    {
+        return mix64(matchSeed + (gameIndex + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Split off a new generator whose stream is independent of the rest of
+     * this one's. This advances this generator.
+     *
+     * @return the new generator.
+     */
+    public SplitRandom split()
+    {
+        return new SplitRandom(mix64(nextLong()));
+    }
+
+    /**
+     * Reset this generator to a new seed.
+     *
+     * @param seed
+     *            The new seed
+     */
+    public void setSeed(long seed)
+    {
+        state = seed;
+    }
+
+    /**
+     * @return the current state of this generator; a generator reseeded with
+     *         it (see setSeed()) continues with the same sequence.
+     */
+    long getState()
+    {
+        return state;
+    }
+
+    /**
+     * @return the next 64 pseudo-random bits.
+     */
+    public long nextLong()
+    {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /**
+     * Generates the next pseudo-random number, which all the other methods
+     * inherited from java.util.Random are built upon.
+     *
+     * @param bits
+     *            The number of random bits wanted
+     * @return an int whose low-order bits are random.
+     */
+    protected int next(int bits)
+    {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    /**
+     * The SplitMix64 finalizer: scrambles all the bits of z.
+     *
+     * @param z
+     *            The value to mix
+     * @return the mixed value.
+     */
+    private static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,665 @@
+package uno;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A TimeBudget limits the time strategies may take: each decision (a call to
+ * UnoPlayer.play() or callColor()) to a number of nanoseconds, and all the
+ * decisions of one hand in one game together to another. A hand given a
+ * budget (see Game.setTimeBudget()) has its strategy called on a watchdog
+ * thread, and waits for the answer no longer than the budget allows. The time
+ * charged is the CPU time of the watchdog thread, so that a strategy is not
+ * penalized for the time it spends waiting for a CPU on a busy machine; a
+ * decision that sleeps or blocks is still cut short once it has taken
+ * WALL_TIME_FACTOR times its budget in wall time. When the time is up, the
+ * strategy is interrupted and abandoned, the overrun is recorded, and the
+ * decision is taken by the policy:
+ * </p>
+ * <ul>
+ * <li>DRAW: the player draws instead of playing (and, for a color call, the
+ * fallback color is called);</li>
+ * <li>FALLBACK: the fallback strategy decides instead, by default the first
+ * legal card and the hand's most common color;</li>
+ * <li>FORFEIT: the game ends then and there, lost by the player who ran out
+ * of time and shared by the others (see Game.play()).</li>
+ * </ul>
+ * <p>
+ * However slow or stuck a strategy is, a match thus takes no longer than its
+ * budgets allow. An abandoned strategy object is never called again: its
+ * hand gets a new one from its PlayerFactory (or, failing that, leaves the
+ * rest of its decisions in the game to the policy), so that no strategy
+ * object is ever run by two threads at once. Interrupting is all that can be
+ * done to stop it, though: code that ignores interrupts (a busy loop, say)
+ * keeps its watchdog thread running until it ends on its own. A strategy
+ * class that has not stopped within STOP_GRACE_NANOS of being interrupted is
+ * therefore not called again for the rest of the match, and the policy makes
+ * every decision of its seats. Each seat has a fixed number of watchdog
+ * threads (see setWatchdogsPerSeat()), so runaway strategies can hold no more
+ * threads, nor CPUs, than that. One TimeBudget can be shared by every thread
+ * of a match; the watchdog threads are daemons, and end when idle.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class TimeBudget
+{
+
+    /**
+     * What happens to a decision that runs out of time.
+     */
+    public enum Policy
+    {
+        DRAW, FALLBACK, FORFEIT
+    };
+
+    /**
+     * Thrown when a player forfeits the game, to end it.
+     */
+    static class Forfeit extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param playerName
+         *            The name of the player forfeiting
+         */
+        Forfeit(String playerName)
+        {
+            super(playerName + " forfeits the game.");
+        }
+    }
+
+    /**
+     * A call to a strategy, made on a watchdog thread, that keeps track of
+     * the CPU time it takes. It is either run to its end, or cancelled before
+     * it starts (in which case the strategy is not called at all).
+     * 
+     * @param <T>
+     *            The type of the decision
+     */
+    abstract static class Decision<T> implements Callable<T>
+    {
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int CANCELLED = 3;
+
+        private AtomicInteger state = new AtomicInteger(NEW);
+        private CountDownLatch ended = new CountDownLatch(1);
+        private String strategyName;
+        private volatile long threadId;
+        private volatile long startCpu;
+        private volatile long cpuNanos;
+
+        /**
+         * @param strategy
+         *            The strategy that decides
+         */
+        Decision(UnoPlayer strategy)
+        {
+            strategyName = strategy.getClass().getName();
+        }
+
+        /**
+         * Call the strategy.
+         * 
+         * @return its decision.
+         */
+        abstract T decide();
+
+        /**
+         * Call the strategy, unless the decision was cancelled first.
+         * 
+         * @return its decision, or null if cancelled.
+         */
+        public T call()
+        {
+            threadId = Thread.currentThread().getId();
+            startCpu = cpuTime(threadId);
+            if (!state.compareAndSet(NEW, RUNNING))
+            {
+                return null;
+            }
+            try
+            {
+                return decide();
+            }
+            finally
+            {
+                cpuNanos = Math.max(cpuTime(threadId) - startCpu, 0);
+                state.set(DONE);
+                ended.countDown();
+            }
+        }
+
+        /**
+         * @return the CPU time taken so far, in nanoseconds.
+         */
+        long cpuNanos()
+        {
+            switch (state.get())
+            {
+            case RUNNING:
+                return Math.max(cpuTime(threadId) - startCpu, 0);
+            case DONE:
+                return cpuNanos;
+            default:
+                return 0;
+            }
+        }
+
+        /**
+         * Make sure the strategy is not called, if it has not been yet.
+         * 
+         * @return true if the strategy has been (or is being) called.
+         */
+        boolean cancel()
+        {
+            return !state.compareAndSet(NEW, CANCELLED);
+        }
+
+        /**
+         * Wait for a call to the strategy to end.
+         * 
+         * @param nanos
+         *            The longest time to wait, in nanoseconds
+         * @return true if it ended in time.
+         */
+        boolean awaitEnd(long nanos)
+        {
+            try
+            {
+                return ended.await(nanos, TimeUnit.NANOSECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+
+        /**
+         * @return the name of the class of the strategy.
+         */
+        String getStrategyName()
+        {
+            return strategyName;
+        }
+    }
+
+    /**
+     * How many times its budget, in wall time, a decision may take before it
+     * is cut short even if it has not used up its budget in CPU time.
+     */
+    static final long WALL_TIME_FACTOR = 10;
+
+    /**
+     * How long a strategy has to stop once interrupted, in nanoseconds.
+     */
+    static final long STOP_GRACE_NANOS = 10000000L;
+
+    private static final ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME =
+            THREADS.isThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    private long decisionNanos;
+    private long gameNanos;
+    private Policy policy;
+    private PlayerFactory fallback;
+    private int watchdogsPerSeat = 1;
+    private List<ExecutorService> watchdogs =
+            new ArrayList<ExecutorService>();
+
+    /**
+     * The strategy classes that did not stop when interrupted.
+     */
+    private Set<String> stuck = Collections.newSetFromMap(
+            new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * The violations of each strategy: decisions over the decision budget,
+     * decisions cut short by the game budget, forfeits and the total time
+     * given to those decisions.
+     */
+    private Map<String, long[]> violations =
+            new LinkedHashMap<String, long[]>();
+
+    /**
+     * Instantiate a budget.
+     * 
+     * @param decisionNanos
+     *            The time allowed per decision, in nanoseconds, or 0 for no
+     *            limit
+     * @param gameNanos
+     *            The time allowed to a hand per game, in nanoseconds, or 0 for
+     *            no limit
+     * @param policy
+     *            What happens to the decisions that run out of time
+     */
+    public TimeBudget(long decisionNanos, long gameNanos, Policy policy)
+    {
+        this.decisionNanos = decisionNanos;
+        this.gameNanos = gameNanos;
+        this.policy = policy;
+    }
+
+    /**
+     * Set the strategy that decides in place of those that run out of time,
+     * under the FALLBACK policy (and, under the DRAW policy, calls colors). It
+     * is called on the player's own thread, without a time limit. Each hand
+     * gets its fallback players from the factory as it gets its own (one per
+     * game, or one per thread), so that none is shared between threads.
+     * 
+     * @param fallback
+     *            The factory of the fallback strategy, or null for the default
+     *            one
+     */
+    public void setFallback(PlayerFactory fallback)
+    {
+        this.fallback = fallback;
+    }
+
+    /**
+     * Get a fallback player for a hand that needs one.
+     * 
+     * @return a player from the fallback factory, or null for the default
+     *         strategy.
+     */
+    UnoPlayer newFallback()
+    {
+        return fallback == null ? null : fallback.newPlayer();
+    }
+
+    /**
+     * Set the number of watchdog threads of each seat: as many decisions of
+     * the seat can be made at once, and as many runaway strategies can keep
+     * running. It should be the number of games played at once; decisions
+     * made beyond it wait for a thread (and the wait counts towards their
+     * wall time limit). It applies to the seats that have not decided yet.
+     * 
+     * @param watchdogsPerSeat
+     *            The number of threads, 1 by default
+     */
+    public synchronized void setWatchdogsPerSeat(int watchdogsPerSeat)
+    {
+        this.watchdogsPerSeat = watchdogsPerSeat;
+    }
+
+    /**
+     * @return what happens to the decisions that run out of time.
+     */
+    public Policy getPolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * Works out the time allowed to the next decision of a hand.
+     * 
+     * @param usedNanos
+     *            The time the hand has already taken in this game
+     * @return the time allowed, in nanoseconds: 0 or less if the game budget
+     *         is spent, Long.MAX_VALUE if there is no limit.
+     */
+    long allowance(long usedNanos)
+    {
+        long allowed = decisionNanos > 0 ? decisionNanos : Long.MAX_VALUE;
+        if (gameNanos > 0)
+        {
+            allowed = Math.min(allowed, gameNanos - usedNanos);
+        }
+        return allowed;
+    }
+
+    /**
+     * Make a decision on a watchdog thread of the given seat, waiting until
+     * it has taken the time allowed in CPU time, or WALL_TIME_FACTOR times
+     * that in wall time.
+     * 
+     * @param seat
+     *            The number of the seat deciding
+     * @param decision
+     *            The call to the strategy, which tells the CPU time it took
+     * @param allowedNanos
+     *            The time allowed, as returned by allowance()
+     * @param <T>
+     *            The type of the decision
+     * @return the decision.
+     * @throws TimeoutException
+     *             if the decision took too long, in which case the strategy
+     *             has been interrupted and, if it did not stop, its class
+     *             is not called again (see isStuck()).
+     */
+    <T> T decide(int seat, Decision<T> decision, long allowedNanos)
+        throws TimeoutException
+    {
+        if (allowedNanos <= 0)
+        {
+            throw new TimeoutException();
+        }
+        long wallNanos = allowedNanos > Long.MAX_VALUE / WALL_TIME_FACTOR
+                ? Long.MAX_VALUE : allowedNanos * WALL_TIME_FACTOR;
+        long start = System.nanoTime();
+        Future<T> result = watchdogs(seat).submit(decision);
+        try
+        {
+            while (true)
+            {
+                long wait = Math.min(allowedNanos - decision.cpuNanos(),
+                        wallNanos - (System.nanoTime() - start));
+                if (wait <= 0)
+                {
+                    abandon(decision, result);
+                    throw new TimeoutException();
+                }
+                try
+                {
+                    return result.get(wait, TimeUnit.NANOSECONDS);
+                }
+                catch (TimeoutException e)
+                {
+                    // It may have been waiting for a CPU: check its time.
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            decision.cancel();
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for "
+                    + "a decision.", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Interrupts a decision that ran out of time and, if the strategy does not
+     * stop, stops calling its class.
+     * 
+     * @param decision
+     *            The decision
+     * @param result
+     *            Its result
+     */
+    private void abandon(Decision<?> decision, Future<?> result)
+    {
+        boolean called = decision.cancel();
+        result.cancel(true);
+        if (called && !decision.awaitEnd(STOP_GRACE_NANOS))
+        {
+            stuck.add(decision.getStrategyName());
+        }
+    }
+
+    /**
+     * Tells whether a strategy may still be called.
+     * 
+     * @param strategy
+     *            The strategy
+     * @return true if its class once failed to stop when interrupted, in
+     *         which case the policy makes its decisions instead.
+     */
+    boolean isStuck(UnoPlayer strategy)
+    {
+        return stuck.contains(strategy.getClass().getName());
+    }
+
+    /**
+     * Gets the watchdog threads of a seat, creating them if need be.
+     * 
+     * @param seat
+     *            The number of the seat
+     * @return the executor running the decisions of the seat.
+     */
+    private synchronized ExecutorService watchdogs(final int seat)
+    {
+        while (watchdogs.size() <= seat)
+        {
+            final String name = "seat-" + watchdogs.size() + "-watchdog";
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    watchdogsPerSeat, watchdogsPerSeat, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+                    {
+                        public Thread newThread(Runnable r)
+                        {
+                            Thread t = new Thread(r, name);
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            watchdogs.add(pool);
+        }
+        return watchdogs.get(seat);
+    }
+
+    /**
+     * Reads the CPU time of a thread.
+     * 
+     * @param threadId
+     *            The id of the thread
+     * @return its CPU time in nanoseconds or, where the JVM does not measure
+     *         it, the wall time.
+     */
+    private static long cpuTime(long threadId)
+    {
+        return CPU_TIME ? THREADS.getThreadCpuTime(threadId)
+                : System.nanoTime();
+    }
+
+    /**
+     * The card played in place of a decision that ran out of time, under the
+     * FALLBACK policy.
+     * 
+     * @param fallback
+     *            The hand's fallback player (see newFallback()), or null
+     * @param hand
+     *            The hand, as the strategy sees it
+     * @param upCard
+     *            The up card
+     * @param calledColor
+     *            The called color
+     * @param state
+     *            The state of the game
+     * @return the index of the card to play, or -1 if none can be played.
+     */
+    int fallbackPlay(UnoPlayer fallback, HandView hand, Card upCard,
+            UnoPlayer.Color calledColor, GameState state)
+    {
+        if (fallback != null)
+        {
+            return fallback.play(hand, upCard, calledColor, state);
+        }
+        for (int i = 0; i < hand.size(); i++)
+        {
+            if (hand.isLegal(i))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The color called in place of a decision that ran out of time.
+     * 
+     * @param fallback
+     *            The hand's fallback player (see newFallback()), or null
+     * @param hand
+     *            The hand, as the strategy sees it
+     * @return the fallback strategy's color, or by default the most common
+     *         color of the hand (red if it has none).
+     */
+    UnoPlayer.Color fallbackColor(UnoPlayer fallback, HandView hand)
+    {
+        if (fallback != null)
+        {
+            return fallback.callColor(hand);
+        }
+        UnoPlayer.Color[] colors = { UnoPlayer.Color.RED,
+                UnoPlayer.Color.YELLOW, UnoPlayer.Color.GREEN,
+                UnoPlayer.Color.BLUE };
+        int[] counts = new int[colors.length];
+        for (Card c : hand)
+        {
+            for (int i = 0; i < colors.length; i++)
+            {
+                if (c.getColor() == colors[i])
+                {
+                    counts[i]++;
+                }
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < colors.length; i++)
+        {
+            if (counts[i] > counts[best])
+            {
+                best = i;
+            }
+        }
+        return colors[best];
+    }
+
+    /**
+     * Record a decision that ran out of time.
+     * 
+     * @param strategy
+     *            The name of the strategy
+     * @param allowedNanos
+     *            The time the decision was given
+     * @param gameBudgetSpent
+     *            true if it was cut short by the game budget
+     */
+    synchronized void recordViolation(String strategy, long allowedNanos,
+            boolean gameBudgetSpent)
+    {
+        long[] counts = violations.get(strategy);
+        if (counts == null)
+        {
+            counts = new long[4];
+            violations.put(strategy, counts);
+        }
+        counts[gameBudgetSpent ? 1 : 0]++;
+        if (policy == Policy.FORFEIT)
+        {
+            counts[2]++;
+        }
+        counts[3] += Math.max(allowedNanos, 0);
+    }
+
+    /**
+     * Tells which budget cut short a decision.
+     * 
+     * @param allowedNanos
+     *            The time the decision was given
+     * @return true if it was the game budget, rather than the decision budget.
+     */
+    boolean isGameBudget(long allowedNanos)
+    {
+        return decisionNanos <= 0 || allowedNanos < decisionNanos;
+    }
+
+    /**
+     * @return the total number of decisions that ran out of time.
+     */
+    public synchronized long getNumViolations()
+    {
+        long total = 0;
+        for (long[] counts : violations.values())
+        {
+            total += counts[0] + counts[1];
+        }
+        return total;
+    }
+
+    /**
+     * Stop the watchdog threads. Strategies still running are interrupted.
+     */
+    public synchronized void shutdown()
+    {
+        for (ExecutorService pool : watchdogs)
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Render the violations of each strategy as a report.
+     * 
+     * @return the report text
+     */
+    public synchronized String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Time budget: %s per decision, %s per game, "
+                + "policy %s%n", millis(decisionNanos), millis(gameNanos),
+                policy));
+        if (violations.isEmpty())
+        {
+            sb.append("No violations.\n");
+        }
+        for (Map.Entry<String, long[]> e : violations.entrySet())
+        {
+            long[] counts = e.getValue();
+            sb.append(String.format("%-20s %d over the decision budget, "
+                    + "%d over the game budget, %d forfeits, %.1f ms lost%n",
+                    e.getKey(), counts[0], counts[1], counts[2],
+                    counts[3] / 1e6));
+        }
+        for (String strategy : stuck)
+        {
+            sb.append(String.format("%-20s ignored an interrupt, and was not "
+                    + "called again%n", strategy));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats a budget for display.
+     * 
+     * @param nanos
+     *            The budget, in nanoseconds
+     * @return the budget in milliseconds, or "no limit".
+     */
+    private static String millis(long nanos)
+    {
+        return nanos > 0 ? nanos / 1e6 + " ms" : "no limit";
+    }
+}
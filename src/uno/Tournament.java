@@ -0,0 +1,598 @@
+package uno;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ * A Tournament pits a pool of strategies against each other at tables of a
+ * fixed size. It schedules a Match for every table: every combination of the
+ * strategies (or, for large pools, a number of balanced rounds, in each of
+ * which every strategy sits at one table), each seated in every rotation (so
+ * that every strategy plays from every seat) or every permutation of its
+ * seats. The matches are played in parallel, one per worker thread at a
+ * time, and their results are added up into per-strategy standings.
+ * </p>
+ * <p>
+ * The schedule is generated as the matches are played, and only a few
+ * matches per worker are handed out ahead of time; each result is added to
+ * the standings as soon as it comes in, and then dropped. So the memory a
+ * tournament takes does not grow with its number of matches, which grows
+ * quickly with the number of strategies.
+ * </p>
+ * <p>
+ * Every match is dealt from its own seed, derived from the tournament seed
+ * and the number of the match, so a tournament is replayable.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+public class Tournament
+{
+
+    /**
+     * Which orders the strategies of a table are seated in.
+     */
+    public enum Seating
+    {
+        ROTATIONS, PERMUTATIONS
+    };
+
+    /**
+     * The number of matches handed out per worker thread at a time, so that
+     * a worker that finishes a match always finds another one waiting.
+     */
+    private static final int MATCHES_IN_FLIGHT_PER_THREAD = 2;
+
+    private PlayerFactory[] strategies;
+    private int tableSize;
+    private int gamesPerMatch = 100;
+    private Seating seating = Seating.ROTATIONS;
+    private int rounds;
+    private long seed = new java.util.Random().nextLong();
+    private int numMatches;
+
+    /**
+     * Instantiate a tournament.
+     * 
+     * @param strategies
+     *            The fully-qualified class names of the strategies
+     * @param tableSize
+     *            The number of players at each table, at most the number of
+     *            strategies
+     */
+    public Tournament(List<String> strategies, int tableSize)
+    {
+        if (tableSize < 2 || tableSize > strategies.size())
+        {
+            throw new IllegalArgumentException("Cannot seat " + tableSize
+                    + " players out of " + strategies.size() + ".");
+        }
+        this.strategies = PlayerFactory.forClassNames(strategies,
+                PlayerFactory.Policy.PER_GAME);
+        this.tableSize = tableSize;
+    }
+
+    /**
+     * @param gamesPerMatch
+     *            The number of games of the match of each table (100 by
+     *            default)
+     */
+    public void setGamesPerMatch(int gamesPerMatch)
+    {
+        this.gamesPerMatch = gamesPerMatch;
+    }
+
+    /**
+     * @param seating
+     *            Which orders the strategies of a table are seated in
+     *            (ROTATIONS by default)
+     */
+    public void setSeating(Seating seating)
+    {
+        this.seating = seating;
+    }
+
+    /**
+     * Sample the combinations of strategies instead of playing all of them.
+     * Each round shuffles the strategies and splits them into tables, so that
+     * every strategy sits at one table per round. When the strategies do not
+     * split evenly, the last table of a round is topped up with strategies
+     * from its first, which then play an extra table.
+     * 
+     * @param rounds
+     *            The number of rounds, or 0 (the default) for every
+     *            combination
+     */
+    public void setRounds(int rounds)
+    {
+        this.rounds = rounds;
+    }
+
+    /**
+     * @param seed
+     *            The master seed of the tournament. By default a Tournament
+     *            picks a random seed.
+     */
+    public void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Work out the tables of the tournament, one at a time.
+     * 
+     * @return an iterator over the seating of every match, as strategy
+     *         numbers in seat order.
+     */
+    public Iterator<int[]> schedule()
+    {
+        return new Schedule();
+    }
+
+    /**
+     * Adds every seating of a table.
+     * 
+     * @param table
+     *            The strategy numbers of the table
+     * @param seatings
+     *            The list to add the seatings to
+     */
+    private void addSeatings(int[] table, List<int[]> seatings)
+    {
+        if (seating == Seating.ROTATIONS)
+        {
+            for (int r = 0; r < tableSize; r++)
+            {
+                int[] seats = new int[tableSize];
+                for (int s = 0; s < tableSize; s++)
+                {
+                    seats[s] = table[(r + s) % tableSize];
+                }
+                seatings.add(seats);
+            }
+        }
+        else
+        {
+            addPermutations(table, 0, seatings);
+        }
+    }
+
+    /**
+     * Adds every permutation of the seats from seat first on.
+     * 
+     * @param table
+     *            The seating, which is permuted in place and restored
+     * @param first
+     *            The first seat to permute
+     * @param tables
+     *            The list to add the permutations to
+     */
+    private static void addPermutations(int[] table, int first,
+            List<int[]> tables)
+    {
+        if (first == table.length - 1)
+        {
+            tables.add(table.clone());
+            return;
+        }
+        for (int i = first; i < table.length; i++)
+        {
+            swap(table, first, i);
+            addPermutations(table, first + 1, tables);
+            swap(table, first, i);
+        }
+    }
+
+    /**
+     * Swaps two seats.
+     * 
+     * @param table
+     *            The seating
+     * @param i
+     *            A seat
+     * @param j
+     *            Another seat
+     */
+    private static void swap(int[] table, int i, int j)
+    {
+        int t = table[i];
+        table[i] = table[j];
+        table[j] = t;
+    }
+
+    /**
+     * Play the tournament.
+     * 
+     * @param numThreads
+     *            The number of matches played at once
+     * @return the standings of the strategies, best first.
+     */
+    public List<Standing> play(int numThreads)
+    {
+        Standing[] standings = new Standing[strategies.length];
+        for (int i = 0; i < strategies.length; i++)
+        {
+            standings[i] = new Standing(strategies[i].getClassName());
+        }
+        numThreads = Math.max(1, numThreads);
+        ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+        CompletionService<TableResult> results =
+                new ExecutorCompletionService<TableResult>(pool);
+        Iterator<int[]> tables = schedule();
+        int maxInFlight = MATCHES_IN_FLIGHT_PER_THREAD * numThreads;
+        int inFlight = 0;
+        numMatches = 0;
+        try
+        {
+            while (true)
+            {
+                while (inFlight < maxInFlight && tables.hasNext())
+                {
+                    results.submit(new TableTask(tables.next(), numMatches));
+                    numMatches++;
+                    inFlight++;
+                }
+                if (inFlight == 0)
+                {
+                    break;
+                }
+                TableResult result = results.take().get();
+                inFlight--;
+                for (int s = 0; s < result.seats.length; s++)
+                {
+                    standings[result.seats[s]].add(result, s);
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("A match of the tournament "
+                    + "failed.", e.getCause());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+        List<Standing> ranked = new ArrayList<Standing>(Arrays.asList(
+                standings));
+        Collections.sort(ranked, new Comparator<Standing>()
+        {
+            public int compare(Standing a, Standing b)
+            {
+                return Double.compare(b.getPointsPerGame(),
+                        a.getPointsPerGame());
+            }
+        });
+        return ranked;
+    }
+
+    /**
+     * @return the number of matches of the last tournament played.
+     */
+    public int getNumMatches()
+    {
+        return numMatches;
+    }
+
+    /**
+     * Renders standings as a table.
+     * 
+     * @param standings
+     *            The standings, as returned by play()
+     * @return the standings text
+     */
+    public static String toString(List<Standing> standings)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%4s  %-24s %8s %8s %9s %12s%n", "Rank",
+                "Strategy", "Matches", "Games", "Win rate", "Points/game"));
+        for (int i = 0; i < standings.size(); i++)
+        {
+            sb.append(String.format("%4d  %s%n", i + 1, standings.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The seatings of the tournament, generated as they are needed: the
+     * tables (every combination of strategies, in lexicographic order, or the
+     * tables of each round in turn), each expanded into its seatings.
+     */
+    private class Schedule implements Iterator<int[]>
+    {
+        private int[] combination;
+        private SplitRandom rand;
+        private List<Integer> order;
+        private int round;
+        private int first;
+        private List<int[]> seatings = new ArrayList<int[]>();
+        private int nextSeating;
+
+        /**
+         * Start the schedule from its first table.
+         */
+        Schedule()
+        {
+            if (rounds > 0)
+            {
+                rand = new SplitRandom(seed);
+                order = new ArrayList<Integer>();
+                for (int i = 0; i < strategies.length; i++)
+                {
+                    order.add(i);
+                }
+                first = order.size();
+            }
+        }
+
+        /**
+         * @return true if there are seatings left.
+         */
+        public boolean hasNext()
+        {
+            while (nextSeating == seatings.size())
+            {
+                int[] table = rounds > 0 ? nextSampledTable()
+                        : nextCombination();
+                if (table == null)
+                {
+                    return false;
+                }
+                seatings.clear();
+                nextSeating = 0;
+                addSeatings(table, seatings);
+            }
+            return true;
+        }
+
+        /**
+         * @return the next seating.
+         */
+        public int[] next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return seatings.get(nextSeating++);
+        }
+
+        /**
+         * Not supported.
+         */
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Steps to the next combination of tableSize strategies.
+         * 
+         * @return the combination, or null after the last one.
+         */
+        private int[] nextCombination()
+        {
+            if (combination == null)
+            {
+                combination = new int[tableSize];
+                for (int i = 0; i < tableSize; i++)
+                {
+                    combination[i] = i;
+                }
+                return combination.clone();
+            }
+            int i = tableSize - 1;
+            while (i >= 0
+                    && combination[i] == strategies.length - tableSize + i)
+            {
+                i--;
+            }
+            if (i < 0)
+            {
+                return null;
+            }
+            combination[i]++;
+            for (int j = i + 1; j < tableSize; j++)
+            {
+                combination[j] = combination[j - 1] + 1;
+            }
+            return combination.clone();
+        }
+
+        /**
+         * Deals the next table of the round, shuffling the strategies for a
+         * new round once every strategy of the last one is seated.
+         * 
+         * @return the table, or null after the last round.
+         */
+        private int[] nextSampledTable()
+        {
+            if (first >= order.size())
+            {
+                if (round == rounds)
+                {
+                    return null;
+                }
+                Collections.shuffle(order, rand);
+                round++;
+                first = 0;
+            }
+            int[] table = new int[tableSize];
+            for (int s = 0; s < tableSize; s++)
+            {
+                table[s] = order.get((first + s) % order.size());
+            }
+            first += tableSize;
+            return table;
+        }
+    }
+
+    /**
+     * The match of one table, played on one thread.
+     */
+    private class TableTask implements Callable<TableResult>
+    {
+        private int[] seats;
+        private int matchIndex;
+
+        /**
+         * @param seats
+         *            The strategy numbers, in seat order
+         * @param matchIndex
+         *            The number of the match in the tournament
+         */
+        TableTask(int[] seats, int matchIndex)
+        {
+            this.seats = seats;
+            this.matchIndex = matchIndex;
+        }
+
+        /**
+         * @return the results of the match.
+         */
+        public TableResult call()
+        {
+            String[] names = new String[seats.length];
+            PlayerFactory[] players = new PlayerFactory[seats.length];
+            for (int s = 0; s < seats.length; s++)
+            {
+                names[s] = strategies[seats[s]].getClassName();
+                players[s] = strategies[seats[s]];
+            }
+            Match m = new Match(names, players, false);
+            m.setSeed(SplitRandom.gameSeed(seed, matchIndex));
+            m.setCollectStatistics(true);
+            Scoreboard s = m.play(gamesPerMatch);
+            return new TableResult(seats, m.getStatistics(), s.snapshot());
+        }
+    }
+
+    /**
+     * The results of the match of one table, by seat.
+     */
+    private static class TableResult
+    {
+        private int[] seats;
+        private MatchStatistics stats;
+        private int[] points;
+
+        /**
+         * @param seats
+         *            The strategy numbers, in seat order
+         * @param stats
+         *            The statistics of the match
+         * @param points
+         *            The final scores of the match
+         */
+        TableResult(int[] seats, MatchStatistics stats, int[] points)
+        {
+            this.seats = seats;
+            this.stats = stats;
+            this.points = points;
+        }
+    }
+
+    /**
+     * The results of one strategy over the tournament.
+     */
+    public static class Standing
+    {
+        private String strategy;
+        private int matches;
+        private long games;
+        private long wins;
+        private long points;
+
+        /**
+         * @param strategy
+         *            The name of the strategy
+         */
+        private Standing(String strategy)
+        {
+            this.strategy = strategy;
+        }
+
+        /**
+         * Adds the results of one seat of a match.
+         * 
+         * @param result
+         *            The results of the match
+         * @param seat
+         *            The seat of the strategy
+         */
+        private void add(TableResult result, int seat)
+        {
+            matches++;
+            games += result.stats.getNumGames();
+            wins += result.stats.getWins(seat);
+            points += result.points[seat];
+        }
+
+        /**
+         * @return the name of the strategy.
+         */
+        public String getStrategy()
+        {
+            return strategy;
+        }
+
+        /**
+         * @return the number of games the strategy played.
+         */
+        public long getGames()
+        {
+            return games;
+        }
+
+        /**
+         * @return the number of games the strategy won.
+         */
+        public long getWins()
+        {
+            return wins;
+        }
+
+        /**
+         * @return the fraction of its games the strategy won.
+         */
+        public double getWinRate()
+        {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * @return the points the strategy scored per game played.
+         */
+        public double getPointsPerGame()
+        {
+            return games == 0 ? 0 : (double) points / games;
+        }
+
+        /**
+         * @return the standing, for display.
+         */
+        public String toString()
+        {
+            return String.format("%-24s %8d %8d %9.3f %12.2f", strategy,
+                    matches, games, getWinRate(), getPointsPerGame());
+        }
+    }
+}
@@ -9,6 +9,8 @@ package uno;
  */
 public class Turn
 {
+    private static final UnoPlayer.Color[] COLORS = UnoPlayer.Color.values();
+
     private int id;
     private Card card;
     private UnoPlayer.Color colorCalled;
@@ -35,6 +37,29 @@ public class Turn
         drew = hadToDraw;
     }
 
+    /**
+     * Re-point this Turn at another turn (see TurnLog.getTurn()).
+     * 
+     * @param playerId
+     *            The id of the current player
+     * @param cardPlayed
+     *            The card played
+     * @param calledColor
+     *            The called color
+     * @param hadToDraw
+     *            Whether or not the player had to draw
+     * @return this Turn.
+     */
+    Turn set(int playerId, Card cardPlayed, UnoPlayer.Color calledColor,
+            boolean hadToDraw)
+    {
+        id = playerId;
+        card = cardPlayed;
+        colorCalled = calledColor;
+        drew = hadToDraw;
+        return this;
+    }
+
     /**
      * @return the player id.
      */
@@ -69,4 +94,67 @@ public class Turn
     {
         return drew;
     }
+
+    /**
+     * Packs a turn into an int: the player id in bits 0-15, the card id plus
+     * one (0 for no card) in bits 16-23, the called color ordinal in bits
+     * 24-27 and the draw flag in bit 28.
+     * 
+     * @param playerId
+     *            The id of the player
+     * @param cardId
+     *            The id of the card played, or -1
+     * @param calledColor
+     *            The ordinal of the called color
+     * @param hadToDraw
+     *            Whether or not the player had to draw
+     * @return the packed turn.
+     */
+    static int pack(int playerId, int cardId, int calledColor,
+            boolean hadToDraw)
+    {
+        return playerId | (cardId + 1) << 16 | calledColor << 24
+                | (hadToDraw ? 1 << 28 : 0);
+    }
+
+    /**
+     * @param packedTurn
+     *            A turn packed by GameState.copyTurns()
+     * @return the player id.
+     */
+    public static int playerIdOf(int packedTurn)
+    {
+        return packedTurn & 0xffff;
+    }
+
+    /**
+     * @param packedTurn
+     *            A turn packed by GameState.copyTurns()
+     * @return the id of the card played (see Card.forId()), or -1 if no card
+     *         was played.
+     */
+    public static int cardIdOf(int packedTurn)
+    {
+        return ((packedTurn >>> 16) & 0xff) - 1;
+    }
+
+    /**
+     * @param packedTurn
+     *            A turn packed by GameState.copyTurns()
+     * @return the called color.
+     */
+    public static UnoPlayer.Color calledColorOf(int packedTurn)
+    {
+        return COLORS[(packedTurn >>> 24) & 0xf];
+    }
+
+    /**
+     * @param packedTurn
+     *            A turn packed by GameState.copyTurns()
+     * @return whether the player had to draw.
+     */
+    public static boolean hadToDrawOf(int packedTurn)
+    {
+        return (packedTurn & 1 << 28) != 0;
+    }
 }
@@ -0,0 +1,117 @@
+package uno;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * The history of the turns of a Game, stored column by column in growable
+ * primitive arrays (player id, id of the card played, called color and
+ * whether the player had to draw) rather than as one Turn object per turn.
+ * getTurn() returns a single flyweight Turn, re-pointed at each call to the
+ * turn asked for.
+ * </p>
+ * <p>
+ * For bulk access, copyTurns() packs each turn into a single int; see
+ * Turn.playerIdOf(), Turn.cardIdOf(), Turn.calledColorOf() and
+ * Turn.hadToDrawOf() to unpack it.
+ * </p>
+ * 
+ * @author Stephen Davies
+ * @version 2026-10-17
+ */
+class TurnLog
+{
+
+    /**
+     * The number of turns allocated for up front.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final UnoPlayer.Color[] COLORS = UnoPlayer.Color.values();
+
+    private int[] playerIds = new int[INITIAL_CAPACITY];
+    private byte[] cardIds = new byte[INITIAL_CAPACITY];
+    private byte[] calledColors = new byte[INITIAL_CAPACITY];
+    private boolean[] drew = new boolean[INITIAL_CAPACITY];
+    private int size;
+    private Turn view = new Turn(0, null, UnoPlayer.Color.NONE, false);
+
+    /**
+     * Record a turn.
+     * 
+     * @param playerId
+     *            The id of the current player
+     * @param cardPlayed
+     *            The card played, or null
+     * @param calledColor
+     *            The called color
+     * @param hadToDraw
+     *            Whether or not the player had to draw
+     */
+    void add(int playerId, Card cardPlayed, UnoPlayer.Color calledColor,
+            boolean hadToDraw)
+    {
+        if (size == playerIds.length)
+        {
+            int capacity = 2 * size;
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            cardIds = Arrays.copyOf(cardIds, capacity);
+            calledColors = Arrays.copyOf(calledColors, capacity);
+            drew = Arrays.copyOf(drew, capacity);
+        }
+        playerIds[size] = playerId;
+        cardIds[size] = (byte) (cardPlayed == null ? -1 : cardPlayed.getId());
+        calledColors[size] = (byte) calledColor.ordinal();
+        drew[size] = hadToDraw;
+        size++;
+    }
+
+    /**
+     * Forget every turn, keeping the storage.
+     */
+    void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * @return the number of turns taken.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Point the flyweight Turn of this log at a turn.
+     * 
+     * @param index
+     *            The index of the turn, from 0 to size() - 1
+     * @return the flyweight Turn, describing that turn until the next call.
+     */
+    Turn getTurn(int index)
+    {
+        int cardId = cardIds[index];
+        return view.set(playerIds[index], cardId < 0 ? null : Card
+                .forId(cardId), COLORS[calledColors[index]], drew[index]);
+    }
+
+    /**
+     * Copy turns, packed into ints, to an array.
+     * 
+     * @param from
+     *            The index of the first turn to copy
+     * @param to
+     *            One past the index of the last turn to copy
+     * @param dst
+     *            Where to copy them, from index 0
+     */
+    void copyTurns(int from, int to, int[] dst)
+    {
+        for (int i = from; i < to; i++)
+        {
+            dst[i - from] = Turn.pack(playerIds[i], cardIds[i],
+                    calledColors[i], drew[i]);
+        }
+    }
+}
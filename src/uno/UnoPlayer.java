@@ -56,7 +56,9 @@ public interface UnoPlayer
      *            will be "Rank.NUMBER" for all numbered cards, and another
      *            value (e.g., "Rank.SKIP," "Rank.REVERSE," etc.) for special
      *            cards. The value of a card's "number" only has meaning if it
-     *            is a number card. (Otherwise, it will be -1.)
+     *            is a number card. (Otherwise, it will be -1.) The list is
+     *            read-only; it is a HandView, which can also tell you which
+     *            of your cards are legal plays.
      *            </p>
      * 
      *            <p>